@@ -0,0 +1,574 @@
+package com.example.myapplication.circleprogress;
+
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Paint.Style;
+import android.graphics.Shader;
+import android.graphics.SweepGradient;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.FloatRange;
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.WeakHashMap;
+
+/**
+ * The immutable appearance of a {@link CircleProgressView}: colors, widths, caps, blocks,
+ * ticks, start angle and direction, together with the paints to draw it.
+ * <p/>
+ * Styles are interned, building a style equal to an existing one returns the existing instance.
+ * Views styled the same way therefore share one style and one set of paints, each view only
+ * keeps its value and geometry.
+ * <p/>
+ * The bar gradient is centered at (0,0), the bar has to be drawn with the canvas translated
+ * to the center of the circle.
+ */
+public final class CircleProgressStyle {
+
+    private static final WeakHashMap<CircleProgressStyle, WeakReference<CircleProgressStyle>> sInstances = new WeakHashMap<>();
+
+    private final int[] mBarColors;
+    private final int mBarWidth;
+    private final int mRimWidth;
+    private final int mRimColor;
+    private final int mFillColor;
+    private final int mStartAngle;
+    private final Paint.Cap mBarStrokeCap;
+    private final boolean mShowBlock;
+    private final int mBlockCount;
+    private final float mBlockScale;
+    private final float mBlockDegree;
+    private final float mBlockScaleDegree;
+    private final Direction mDirection;
+    private final Shader mRimShader;
+    private final boolean mAntiAlias;
+    private final int mTickCount;
+    private final int mTickLength;
+    private final int mTickWidth;
+    private final int mTickColor;
+    private final int mMarkerLength;
+    private final int mMarkerWidth;
+    private final int mMarkerColor;
+
+    //Paints, created on first use so styles only built on the way to another one stay cheap
+    private Paint mBarPaint;
+    private Paint mShaderlessBarPaint;
+    private Paint mRimPaint;
+    private Paint mFillPaint;
+    private Paint mTickPaint;
+    private Paint mMarkerPaint;
+    //The same style without anti-aliasing
+    private CircleProgressStyle mAliasedStyle;
+
+    private CircleProgressStyle(Builder _builder) {
+        mBarColors = _builder.mBarColors.clone();
+        mBarWidth = _builder.mBarWidth;
+        mRimWidth = _builder.mRimWidth;
+        mRimColor = _builder.mRimColor;
+        mFillColor = _builder.mFillColor;
+        mStartAngle = _builder.mStartAngle;
+        mBarStrokeCap = _builder.mBarStrokeCap;
+        mShowBlock = _builder.mShowBlock;
+        mBlockCount = _builder.mBlockCount;
+        mBlockScale = _builder.mBlockScale;
+        mBlockDegree = 360.0f / mBlockCount;
+        mBlockScaleDegree = mBlockDegree * mBlockScale;
+        mDirection = _builder.mDirection;
+        mRimShader = _builder.mRimShader;
+        mAntiAlias = _builder.mAntiAlias;
+        mTickCount = _builder.mTickCount;
+        mTickLength = _builder.mTickLength;
+        mTickWidth = _builder.mTickWidth;
+        mTickColor = _builder.mTickColor;
+        mMarkerLength = _builder.mMarkerLength;
+        mMarkerWidth = _builder.mMarkerWidth;
+        mMarkerColor = _builder.mMarkerColor;
+    }
+
+    private static CircleProgressStyle intern(CircleProgressStyle _style) {
+        synchronized (sInstances) {
+            WeakReference<CircleProgressStyle> reference = sInstances.get(_style);
+            CircleProgressStyle existing = reference != null ? reference.get() : null;
+            if (existing != null) {
+                return existing;
+            }
+            sInstances.put(_style, new WeakReference<>(_style));
+            return _style;
+        }
+    }
+
+    /**
+     * Creates the paints on first use, styles are drawn on the main thread only.
+     */
+    private void ensurePaints() {
+        // the marker paint is assigned last
+        if (mMarkerPaint == null) {
+            setupPaints();
+        }
+    }
+
+    private void setupPaints() {
+        int solidColor = mBarColors.length > 0 ? mBarColors[0] : Builder.DEFAULT_BAR_COLOR;
+
+        mBarPaint = new Paint();
+        if (hasGradient()) {
+            Shader shader = new SweepGradient(0, 0, mBarColors, null);
+            Matrix matrix = new Matrix();
+            matrix.setRotate(mStartAngle);
+            shader.setLocalMatrix(matrix);
+            mBarPaint.setShader(shader);
+        } else {
+            mBarPaint.setColor(solidColor);
+        }
+        mBarPaint.setAntiAlias(mAntiAlias);
+        mBarPaint.setStrokeCap(mBarStrokeCap);
+        mBarPaint.setStyle(Style.STROKE);
+        mBarPaint.setStrokeWidth(mBarWidth);
+
+        mShaderlessBarPaint = new Paint(mBarPaint);
+        mShaderlessBarPaint.setShader(null);
+        mShaderlessBarPaint.setColor(solidColor);
+
+        mRimPaint = new Paint();
+        mRimPaint.setColor(mRimColor);
+        mRimPaint.setShader(mRimShader);
+        mRimPaint.setAntiAlias(mAntiAlias);
+        mRimPaint.setStyle(Style.STROKE);
+        mRimPaint.setStrokeWidth(mRimWidth);
+        mRimPaint.setStrokeCap(Paint.Cap.ROUND);
+
+        mFillPaint = new Paint();
+        mFillPaint.setColor(mFillColor);
+        mFillPaint.setAntiAlias(mAntiAlias);
+        mFillPaint.setStyle(Style.FILL);
+
+        mTickPaint = new Paint();
+        mTickPaint.setColor(mTickColor);
+        mTickPaint.setAntiAlias(mAntiAlias);
+        mTickPaint.setStyle(Style.STROKE);
+        mTickPaint.setStrokeWidth(mTickWidth);
+
+        mMarkerPaint = new Paint(mTickPaint);
+        mMarkerPaint.setColor(mMarkerColor);
+        mMarkerPaint.setStrokeWidth(mMarkerWidth);
+    }
+
+    //----------------------------------
+    //region getter
+
+    public int[] getBarColors() {
+        return mBarColors.clone();
+    }
+
+    /**
+     * @return true if the bar is drawn with a gradient of the bar colors.
+     */
+    public boolean hasGradient() {
+        return mBarColors.length > 1;
+    }
+
+    public int getBarWidth() {
+        return mBarWidth;
+    }
+
+    public int getRimWidth() {
+        return mRimWidth;
+    }
+
+    public int getRimColor() {
+        return mRimColor;
+    }
+
+    public int getFillColor() {
+        return mFillColor;
+    }
+
+    public int getStartAngle() {
+        return mStartAngle;
+    }
+
+    public Paint.Cap getBarStrokeCap() {
+        return mBarStrokeCap;
+    }
+
+    public boolean isShowBlock() {
+        return mShowBlock;
+    }
+
+    public int getBlockCount() {
+        return mBlockCount;
+    }
+
+    public float getBlockScale() {
+        return mBlockScale;
+    }
+
+    float getBlockDegree() {
+        return mBlockDegree;
+    }
+
+    float getBlockScaleDegree() {
+        return mBlockScaleDegree;
+    }
+
+    public Direction getDirection() {
+        return mDirection;
+    }
+
+    public Shader getRimShader() {
+        return mRimShader;
+    }
+
+    public boolean isAntiAlias() {
+        return mAntiAlias;
+    }
+
+    public int getTickCount() {
+        return mTickCount;
+    }
+
+    public int getTickLength() {
+        return mTickLength;
+    }
+
+    public int getTickWidth() {
+        return mTickWidth;
+    }
+
+    public int getTickColor() {
+        return mTickColor;
+    }
+
+    public int getMarkerLength() {
+        return mMarkerLength;
+    }
+
+    public int getMarkerWidth() {
+        return mMarkerWidth;
+    }
+
+    public int getMarkerColor() {
+        return mMarkerColor;
+    }
+
+    Paint getBarPaint() {
+        ensurePaints();
+        return mBarPaint;
+    }
+
+    Paint getShaderlessBarPaint() {
+        ensurePaints();
+        return mShaderlessBarPaint;
+    }
+
+    Paint getRimPaint() {
+        ensurePaints();
+        return mRimPaint;
+    }
+
+    Paint getFillPaint() {
+        ensurePaints();
+        return mFillPaint;
+    }
+
+    Paint getTickPaint() {
+        ensurePaints();
+        return mTickPaint;
+    }
+
+    Paint getMarkerPaint() {
+        ensurePaints();
+        return mMarkerPaint;
+    }
+
+    /**
+     * @return this style without anti-aliasing, shared like any other style.
+     */
+    CircleProgressStyle withoutAntiAlias() {
+        if (!mAntiAlias) {
+            return this;
+        }
+        if (mAliasedStyle == null) {
+            mAliasedStyle = buildUpon().antiAlias(false).build();
+        }
+        return mAliasedStyle;
+    }
+
+    /**
+     * @return a builder initialized with this style.
+     */
+    public Builder buildUpon() {
+        return new Builder(this);
+    }
+
+    //endregion getter
+    //----------------------------------
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CircleProgressStyle)) {
+            return false;
+        }
+        CircleProgressStyle other = (CircleProgressStyle) o;
+        return mBarWidth == other.mBarWidth
+                && mRimWidth == other.mRimWidth
+                && mRimColor == other.mRimColor
+                && mFillColor == other.mFillColor
+                && mStartAngle == other.mStartAngle
+                && mShowBlock == other.mShowBlock
+                && mBlockCount == other.mBlockCount
+                && Float.compare(mBlockScale, other.mBlockScale) == 0
+                && mAntiAlias == other.mAntiAlias
+                && mTickCount == other.mTickCount
+                && mTickLength == other.mTickLength
+                && mTickWidth == other.mTickWidth
+                && mTickColor == other.mTickColor
+                && mMarkerLength == other.mMarkerLength
+                && mMarkerWidth == other.mMarkerWidth
+                && mMarkerColor == other.mMarkerColor
+                && mBarStrokeCap == other.mBarStrokeCap
+                && mDirection == other.mDirection
+                && mRimShader == other.mRimShader
+                && Arrays.equals(mBarColors, other.mBarColors);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(mBarColors);
+        result = 31 * result + mBarWidth;
+        result = 31 * result + mRimWidth;
+        result = 31 * result + mRimColor;
+        result = 31 * result + mFillColor;
+        result = 31 * result + mStartAngle;
+        result = 31 * result + mBarStrokeCap.hashCode();
+        result = 31 * result + (mShowBlock ? 1 : 0);
+        result = 31 * result + mBlockCount;
+        result = 31 * result + Float.floatToIntBits(mBlockScale);
+        result = 31 * result + mDirection.hashCode();
+        result = 31 * result + System.identityHashCode(mRimShader);
+        result = 31 * result + (mAntiAlias ? 1 : 0);
+        result = 31 * result + mTickCount;
+        result = 31 * result + mTickLength;
+        result = 31 * result + mTickWidth;
+        result = 31 * result + mTickColor;
+        result = 31 * result + mMarkerLength;
+        result = 31 * result + mMarkerWidth;
+        result = 31 * result + mMarkerColor;
+        return result;
+    }
+
+    /**
+     * Builds {@link CircleProgressStyle}s. Defaults match the defaults of {@link CircleProgressView}.
+     */
+    public static final class Builder {
+
+        static final int DEFAULT_BAR_COLOR = 0xff009688; //stylish blue
+
+        private int[] mBarColors = new int[]{DEFAULT_BAR_COLOR};
+        private int mBarWidth = 40;
+        private int mRimWidth = 40;
+        private int mRimColor = 0xAA83d0c9;
+        private int mFillColor = 0x00000000;  //transparent
+        private int mStartAngle = 270;
+        private Paint.Cap mBarStrokeCap = Paint.Cap.ROUND;
+        private boolean mShowBlock = false;
+        private int mBlockCount = 18;
+        private float mBlockScale = 0.9f;
+        private Direction mDirection = Direction.CW;
+        private Shader mRimShader;
+        private boolean mAntiAlias = true;
+        private int mTickCount = 0;
+        private int mTickLength = 20;
+        private int mTickWidth = 2;
+        private int mTickColor = 0x66000000;
+        private int mMarkerLength = 40;
+        private int mMarkerWidth = 4;
+        private int mMarkerColor = 0xffe53935;
+
+        public Builder() {
+        }
+
+        private Builder(CircleProgressStyle _style) {
+            mBarColors = _style.mBarColors;
+            mBarWidth = _style.mBarWidth;
+            mRimWidth = _style.mRimWidth;
+            mRimColor = _style.mRimColor;
+            mFillColor = _style.mFillColor;
+            mStartAngle = _style.mStartAngle;
+            mBarStrokeCap = _style.mBarStrokeCap;
+            mShowBlock = _style.mShowBlock;
+            mBlockCount = _style.mBlockCount;
+            mBlockScale = _style.mBlockScale;
+            mDirection = _style.mDirection;
+            mRimShader = _style.mRimShader;
+            mAntiAlias = _style.mAntiAlias;
+            mTickCount = _style.mTickCount;
+            mTickLength = _style.mTickLength;
+            mTickWidth = _style.mTickWidth;
+            mTickColor = _style.mTickColor;
+            mMarkerLength = _style.mMarkerLength;
+            mMarkerWidth = _style.mMarkerWidth;
+            mMarkerColor = _style.mMarkerColor;
+        }
+
+        /**
+         * @param _barColors One or more colors. If more than one color is specified, a gradient of the colors is used.
+         */
+        public Builder barColors(@ColorInt int... _barColors) {
+            mBarColors = _barColors;
+            return this;
+        }
+
+        /**
+         * @param _barWidth The width of the progress bar in pixel.
+         */
+        public Builder barWidth(@IntRange(from = 0) int _barWidth) {
+            mBarWidth = _barWidth;
+            return this;
+        }
+
+        /**
+         * @param _rimWidth The width in pixel of the rim around the circle
+         */
+        public Builder rimWidth(@IntRange(from = 0) int _rimWidth) {
+            mRimWidth = _rimWidth;
+            return this;
+        }
+
+        /**
+         * @param _rimColor The color of the rim around the Circle.
+         */
+        public Builder rimColor(@ColorInt int _rimColor) {
+            mRimColor = _rimColor;
+            return this;
+        }
+
+        public Builder rimShader(Shader _rimShader) {
+            mRimShader = _rimShader;
+            return this;
+        }
+
+        /**
+         * @param _fillColor The background color of the entire circle, 0x00000000 to hide it.
+         */
+        public Builder fillColor(@ColorInt int _fillColor) {
+            mFillColor = _fillColor;
+            return this;
+        }
+
+        /**
+         * @param _startAngle The start angle in degree, normalized to 0 - 360.
+         */
+        public Builder startAngle(int _startAngle) {
+            // get a angle between 0 and 360
+            mStartAngle = ((_startAngle % 360) + 360) % 360;
+            return this;
+        }
+
+        /**
+         * @param _barStrokeCap The stroke cap of the progress bar.
+         */
+        public Builder barStrokeCap(@NonNull Paint.Cap _barStrokeCap) {
+            mBarStrokeCap = _barStrokeCap;
+            return this;
+        }
+
+        public Builder showBlock(boolean _showBlock) {
+            mShowBlock = _showBlock;
+            return this;
+        }
+
+        /**
+         * @param _blockCount The number of blocks, must be greater than 1.
+         */
+        public Builder blockCount(@IntRange(from = 2) int _blockCount) {
+            if (_blockCount > 1) {
+                mBlockCount = _blockCount;
+            }
+            return this;
+        }
+
+        public Builder blockScale(@FloatRange(from = 0.0, to = 1) float _blockScale) {
+            if (_blockScale >= 0.0f && _blockScale <= 1.0f) {
+                mBlockScale = _blockScale;
+            }
+            return this;
+        }
+
+        /**
+         * @param _direction The direction of circular motion (clockwise or counter-clockwise).
+         */
+        public Builder direction(@NonNull Direction _direction) {
+            mDirection = _direction;
+            return this;
+        }
+
+        public Builder antiAlias(boolean _antiAlias) {
+            mAntiAlias = _antiAlias;
+            return this;
+        }
+
+        /**
+         * @param _tickCount The number of graduation ticks around the circle, 0 for none.
+         */
+        public Builder tickCount(@IntRange(from = 0) int _tickCount) {
+            mTickCount = Math.max(0, _tickCount);
+            return this;
+        }
+
+        /**
+         * @param _tickLength The length in pixel of a tick, centered on the circle.
+         */
+        public Builder tickLength(@IntRange(from = 0) int _tickLength) {
+            mTickLength = _tickLength;
+            return this;
+        }
+
+        /**
+         * @param _tickWidth The stroke width in pixel of a tick.
+         */
+        public Builder tickWidth(@IntRange(from = 0) int _tickWidth) {
+            mTickWidth = _tickWidth;
+            return this;
+        }
+
+        public Builder tickColor(@ColorInt int _tickColor) {
+            mTickColor = _tickColor;
+            return this;
+        }
+
+        /**
+         * @param _markerLength The length in pixel of a threshold marker, centered on the circle.
+         */
+        public Builder markerLength(@IntRange(from = 0) int _markerLength) {
+            mMarkerLength = _markerLength;
+            return this;
+        }
+
+        /**
+         * @param _markerWidth The stroke width in pixel of a threshold marker.
+         */
+        public Builder markerWidth(@IntRange(from = 0) int _markerWidth) {
+            mMarkerWidth = _markerWidth;
+            return this;
+        }
+
+        public Builder markerColor(@ColorInt int _markerColor) {
+            mMarkerColor = _markerColor;
+            return this;
+        }
+
+        /**
+         * @return the style, an existing instance if an equal style is already in use.
+         */
+        public CircleProgressStyle build() {
+            return intern(new CircleProgressStyle(this));
+        }
+    }
+}
@@ -1,24 +1,35 @@
 package com.example.myapplication.circleprogress;
 
-import android.animation.Animator;
-import android.animation.AnimatorListenerAdapter;
+import android.animation.TimeAnimator;
 import android.animation.ValueAnimator;
+import android.content.BroadcastReceiver;
 import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Matrix;
 import android.graphics.Paint;
-import android.graphics.Paint.Style;
+import android.graphics.Path;
 import android.graphics.PointF;
+import android.graphics.RecordingCanvas;
 import android.graphics.Rect;
 import android.graphics.RectF;
+import android.graphics.RenderNode;
 import android.graphics.Shader;
-import android.graphics.SweepGradient;
 import android.os.Build;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import android.provider.Settings;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.View;
-import android.view.animation.LinearInterpolator;
+import android.view.accessibility.AccessibilityEvent;
+import android.view.accessibility.AccessibilityManager;
+import android.view.accessibility.AccessibilityNodeInfo;
+import android.widget.ProgressBar;
 
 import androidx.annotation.ColorInt;
 import androidx.annotation.FloatRange;
@@ -26,6 +37,9 @@ import androidx.annotation.IntRange;
 import androidx.annotation.NonNull;
 import androidx.annotation.RequiresApi;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.example.myapplication.R;
 
 /**
@@ -42,7 +56,7 @@ import com.example.myapplication.R;
  * http://creativecommons.org/licenses/by/3.0/
  */
 @SuppressWarnings("unused")
-public class CircleProgressView extends View implements ValueAnimator.AnimatorUpdateListener {
+public class CircleProgressView extends View implements TimeAnimator.TimeListener {
 
     /**
      * The log tag.
@@ -57,9 +71,12 @@ public class CircleProgressView extends View implements ValueAnimator.AnimatorUp
     //Rectangles
     protected RectF mCircleBounds = new RectF();
     protected RectF mInnerCircleBound = new RectF();
+    //Bounds of the wedge used to clip the recorded bar
+    protected RectF mBarClipBounds = new RectF();
+    //Bounds of the circle relative to its center, the bar is drawn around (0,0)
+    protected RectF mCenteredCircleBounds = new RectF();
     protected PointF mCenter;
     //value animation
-    Direction mDirection = Direction.CW;
     float mCurrentValue = 0;
     float mValueTo = 0;
     float mValueFrom = 0;
@@ -71,34 +88,107 @@ public class CircleProgressView extends View implements ValueAnimator.AnimatorUp
      * The animation duration in ms
      */
     long mAnimationDuration = 900;
+    /**
+     * The easing curve of value animations.
+     */
+    private Easing mEasing = Easing.linear();
+
+    //Appearance, shared with all views styled the same way
+    private CircleProgressStyle mStyle = new CircleProgressStyle.Builder().build();
+    //The style used to draw, mStyle adjusted to the render quality
+    private CircleProgressStyle mDrawStyle = mStyle;
+    //Concentric rings inside the main ring, sharing bounds, drawing and animation
+    private final List<Ring> mRings = new ArrayList<>();
+    private int mRingSpacing = 0;
+    //Threshold marker values and the precomputed tick and marker lines, 4 floats per line
+    private float[] mMarkerValues = new float[0];
+    private float[] mTickLines = new float[0];
+    private float[] mMarkerLines = new float[0];
+    //Value dependent bar color, replaces the bar colors of the style
+    private ColorRamp mBarColorRamp;
+    private Paint mRampBarPaint;
 
-    private int mBarWidth = 40;
-    private int mRimWidth = 40;
-    private int mStartAngle = 270;
-    private int mBackgroundCircleColor = 0x00000000;  //transparent
-    private int mRimColor = 0xAA83d0c9;
-
-    private int[] mBarColors = new int[]{
-            mBarColorStandard //stylish blue
-    };
-    //Caps
-    private Paint.Cap mBarStrokeCap = Paint.Cap.ROUND;
-    //Paints
-    private Paint mBarPaint = new Paint();
-    private Paint mShaderlessBarPaint;
-    private Paint mBackgroundCirclePaint = new Paint();
-    private Paint mRimPaint = new Paint();
-
-    private boolean mShowBlock = false;
-    private int mBlockCount = 18;
-    private float mBlockScale = 0.9f;
-    private float mBlockDegree = 360 / mBlockCount;
-    private float mBlockScaleDegree = mBlockDegree * mBlockScale;
     private boolean mRoundToBlock = false;
     private boolean mRoundToWholeNumber = false;
     private AnimationFinishListener animationFinishListener;
+    private OnValueChangedListener mOnValueChangedListener;
+    private ValueDispatchMode mValueDispatchMode = ValueDispatchMode.EVERY_FRAME;
+    /**
+     * Units for {@link ValueDispatchMode#UNITS}, milliseconds for {@link ValueDispatchMode#INTERVAL}.
+     */
+    private float mValueDispatchStep = 1;
+    private float mLastDispatchedValue = Float.NaN;
+    private long mLastDispatchTime = 0;
+
+    //Drives the value and the ring animations, one frame callback for all of them
+    private TimeAnimator mAnimator;
+    //The total time of the animator at the last frame
+    private long mAnimatorTime = 0;
+    private boolean mAnimating = false;
+    //The animator time the value animation started at
+    private long mAnimationStart = 0;
+    //The play time of the last animation frame, does not advance while the animation is paused
+    private long mAnimationPlayTime = 0;
+    //mAnimationDuration scaled by the system animator duration scale
+    private long mScaledAnimationDuration = 0;
+    private Easing mAnimationEasing = mEasing;
+
+    //Saved state
+    private boolean mContinueAnimationOnRestore = true;
+    private boolean mSuppressEntryAnimationOnRestore = false;
+    //true from a restore until the first frame, drawn or not
+    private boolean mRestoring = false;
+    private final Runnable mRestoreEnder = new Runnable() {
+        @Override
+        public void run() {
+            mRestoring = false;
+        }
+    };
+
+    //Render quality
+    private RenderQuality mRenderQuality = RenderQuality.FULL;
+    private boolean mFollowPowerSaveMode = false;
+    private boolean mPowerSaveMode = false;
+    private boolean mPowerSaveReceiverRegistered = false;
+    private boolean mAntiAliasDisabledInLowPower = true;
+    /**
+     * The max animation frames per second if the render quality is not {@link RenderQuality#FULL}.
+     */
+    private int mMaxFrameRate = 30;
+    /**
+     * Rings with a smaller diameter in pixel are drawn in reduced quality.
+     */
+    private int mLowQualitySize;
+    private long mLastFrameTime;
+    private boolean mBarGradientActive = false;
+    private final BroadcastReceiver mPowerSaveReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            updatePowerSaveMode();
+        }
+    };
 
-    private ValueAnimator progressAnimator;
+    //Render nodes, API 29+
+    private boolean mRenderNodeEnabled = true;
+    private boolean mRenderNodesDirty = true;
+    private RenderNode mRimNode;
+    private RenderNode mBarNode;
+    private final Path mBarClipPath = new Path();
+
+    //Accessibility
+    private AccessibilityManager mAccessibilityManager;
+    /**
+     * The minimum time in ms between two accessibility events reporting the value.
+     */
+    private long mAccessibilityEventInterval = 200;
+    private long mLastAccessibilityEventTime = 0;
+    private boolean mAccessibilityEventPending = false;
+    private final Runnable mAccessibilityEventSender = new Runnable() {
+        @Override
+        public void run() {
+            sendAccessibilityRangeEvent();
+        }
+    };
 
     //endregion members
     //----------------------------------
@@ -112,6 +202,9 @@ public class CircleProgressView extends View implements ValueAnimator.AnimatorUp
     public CircleProgressView(Context context, AttributeSet attrs) {
         super(context, attrs);
 
+        mAccessibilityManager = (AccessibilityManager) context.getSystemService(Context.ACCESSIBILITY_SERVICE);
+        mLowQualitySize = (int) (64 * getResources().getDisplayMetrics().density);
+
         parseAttributes(context.obtainStyledAttributes(attrs,
                 R.styleable.CircleProgressView));
 
@@ -195,52 +288,90 @@ public class CircleProgressView extends View implements ValueAnimator.AnimatorUp
     //----------------------------------
     //region getter/setter
 
+    /**
+     * Starts a transaction to change several properties at once.
+     * The changes are collected and applied by {@link Editor#apply()} with a single style build,
+     * a single bounds and paint setup and a single invalidate:
+     * <pre>
+     * view.edit().barWidth(10).rimWidth(10).barColors(from, to).startAngle(0).apply();
+     * </pre>
+     *
+     * @return an editor for this view.
+     */
+    public Editor edit() {
+        return new Editor();
+    }
+
+    public CircleProgressStyle getStyle() {
+        return mStyle;
+    }
+
+    /**
+     * Sets the whole appearance at once. Views with equal styles share the style and its paints,
+     * so prefer building one style and setting it on many views over calling the single setters.
+     *
+     * @param _style The style.
+     */
+    public void setStyle(@NonNull CircleProgressStyle _style) {
+        boolean boundsChanged = _style.getBarWidth() != mStyle.getBarWidth() || _style.getRimWidth() != mStyle.getRimWidth();
+        mStyle = _style;
+        if (boundsChanged) {
+            setupBounds();
+        } else {
+            setupTicks();
+        }
+        setupPaints();
+        invalidate();
+    }
+
     public int[] getBarColors() {
-        return mBarColors;
+        return mStyle.getBarColors();
     }
 
     public Paint.Cap getBarStrokeCap() {
-        return mBarStrokeCap;
+        return mStyle.getBarStrokeCap();
     }
 
     /**
      * @param _barStrokeCap The stroke cap of the progress bar.
      */
     public void setBarStrokeCap(Paint.Cap _barStrokeCap) {
-        mBarStrokeCap = _barStrokeCap;
-        mBarPaint.setStrokeCap(_barStrokeCap);
-        if (mBarStrokeCap != Paint.Cap.BUTT) {
-            mShaderlessBarPaint = new Paint(mBarPaint);
-            mShaderlessBarPaint.setShader(null);
-            mShaderlessBarPaint.setColor(mBarColors[0]);
-        }
+        setStyle(mStyle.buildUpon().barStrokeCap(_barStrokeCap).build());
+    }
+
+    public ColorRamp getBarColorRamp() {
+        return mBarColorRamp;
+    }
+
+    /**
+     * Colors the bar depending on the value, e.g. by severity.
+     * Each frame only the solid bar color is swapped, the bar colors of the style are ignored.
+     *
+     * @param _barColorRamp The color ramp or null to use the bar colors again.
+     */
+    public void setBarColorRamp(ColorRamp _barColorRamp) {
+        mBarColorRamp = _barColorRamp;
+        setupPaints();
+        invalidate();
     }
 
     public int getBarWidth() {
-        return mBarWidth;
+        return mStyle.getBarWidth();
     }
 
     /**
      * @param barWidth The width of the progress bar in pixel.
      */
     public void setBarWidth(@IntRange(from = 0) int barWidth) {
-        this.mBarWidth = barWidth;
-        mBarPaint.setStrokeWidth(barWidth);
+        setStyle(mStyle.buildUpon().barWidth(barWidth).build());
     }
 
     public int getBlockCount() {
-        return mBlockCount;
+        return mStyle.getBlockCount();
     }
 
     public void setBlockCount(int blockCount) {
-        if (blockCount > 1) {
-            mShowBlock = true;
-            mBlockCount = blockCount;
-            mBlockDegree = 360.0f / blockCount;
-            mBlockScaleDegree = mBlockDegree * mBlockScale;
-        } else {
-            mShowBlock = false;
-        }
+        setStyle(mStyle.buildUpon().showBlock(blockCount > 1).blockCount(blockCount).build());
     }
 
     public void setRoundToBlock(boolean _roundToBlock) {
@@ -260,18 +391,15 @@ public class CircleProgressView extends View implements ValueAnimator.AnimatorUp
     }
 
     public float getBlockScale() {
-        return mBlockScale;
+        return mStyle.getBlockScale();
     }
 
     public void setBlockScale(@FloatRange(from = 0.0, to = 1) float blockScale) {
-        if (blockScale >= 0.0f && blockScale <= 1.0f) {
-            mBlockScale = blockScale;
-            mBlockScaleDegree = mBlockDegree * blockScale;
-        }
+        setStyle(mStyle.buildUpon().blockScale(blockScale).build());
     }
 
     public int getFillColor() {
-        return mBackgroundCirclePaint.getColor();
+        return mStyle.getFillColor();
     }
 
     public float getCurrentValue() {
@@ -298,6 +426,7 @@ public class CircleProgressView extends View implements ValueAnimator.AnimatorUp
      */
     public void setMaxValue(@FloatRange(from = 0) float _maxValue) {
         mMaxValue = _maxValue;
+        setupTicks();
     }
 
     /**
@@ -319,52 +448,49 @@ public class CircleProgressView extends View implements ValueAnimator.AnimatorUp
     }
 
     public int getRimColor() {
-        return mRimColor;
+        return mStyle.getRimColor();
     }
 
     /**
      * @param rimColor The color of the rim around the Circle.
      */
     public void setRimColor(@ColorInt int rimColor) {
-        mRimColor = rimColor;
-        mRimPaint.setColor(rimColor);
+        setStyle(mStyle.buildUpon().rimColor(rimColor).build());
     }
 
     public Shader getRimShader() {
-        return mRimPaint.getShader();
+        return mStyle.getRimShader();
     }
 
     public void setRimShader(Shader shader) {
-        this.mRimPaint.setShader(shader);
+        setStyle(mStyle.buildUpon().rimShader(shader).build());
     }
 
     public int getRimWidth() {
-        return mRimWidth;
+        return mStyle.getRimWidth();
     }
 
     /**
      * @param rimWidth The width in pixel of the rim around the circle
      */
     public void setRimWidth(@IntRange(from = 0) int rimWidth) {
-        mRimWidth = rimWidth;
-        mRimPaint.setStrokeWidth(rimWidth);
+        setStyle(mStyle.buildUpon().rimWidth(rimWidth).build());
     }
 
     public int getStartAngle() {
-        return mStartAngle;
+        return mStyle.getStartAngle();
     }
 
     public void setStartAngle(@IntRange(from = 0, to = 360) int _startAngle) {
-        // get a angle between 0 and 360
-        mStartAngle = (int) normalizeAngle(_startAngle);
+        setStyle(mStyle.buildUpon().startAngle(_startAngle).build());
     }
 
     public boolean isShowBlock() {
-        return mShowBlock;
+        return mStyle.isShowBlock();
     }
 
     public void setShowBlock(boolean showBlock) {
-        mShowBlock = showBlock;
+        setStyle(mStyle.buildUpon().showBlock(showBlock).build());
     }
 
     /**
@@ -373,8 +499,7 @@ public class CircleProgressView extends View implements ValueAnimator.AnimatorUp
      * @param barColors One or more colors. If more than one color is specified, a gradient of the colors is used.
      */
     public void setBarColor(@ColorInt int... barColors) {
-        this.mBarColors = barColors;
-        setupBarPaint();
+        setStyle(mStyle.buildUpon().barColors(barColors).build());
     }
 
     /**
@@ -384,15 +509,18 @@ public class CircleProgressView extends View implements ValueAnimator.AnimatorUp
      * @param circleColor the color.
      */
     public void setFillCircleColor(@ColorInt int circleColor) {
-        mBackgroundCircleColor = circleColor;
-        mBackgroundCirclePaint.setColor(circleColor);
+        setStyle(mStyle.buildUpon().fillColor(circleColor).build());
+    }
+
+    public Direction getDirection() {
+        return mStyle.getDirection();
     }
 
     /**
      * Sets the direction of circular motion (clockwise or counter-clockwise).
      */
     public void setDirection(Direction direction) {
-        mDirection = direction;
+        setStyle(mStyle.buildUpon().direction(direction).build());
     }
 
     /**
@@ -403,8 +531,8 @@ public class CircleProgressView extends View implements ValueAnimator.AnimatorUp
      */
     public void setValue(float _value) {
         // round to block
-        if (mShowBlock && mRoundToBlock) {
-            float value_per_block = mMaxValue / (float) mBlockCount;
+        if (mStyle.isShowBlock() && mRoundToBlock) {
+            float value_per_block = mMaxValue / (float) mStyle.getBlockCount();
             _value = Math.round(_value / value_per_block) * value_per_block;
 
         } else if (mRoundToWholeNumber) { // round to whole number
@@ -416,7 +544,10 @@ public class CircleProgressView extends View implements ValueAnimator.AnimatorUp
 
         if (mMaxValueAllowed >= 0)
             _value = Math.min(mMaxValueAllowed, _value);
+        mAnimating = false;
         mCurrentValue = _value;
+        dispatchValueChanged(true);
+        scheduleAccessibilityRangeEvent();
         invalidate();
     }
 
@@ -449,9 +580,13 @@ public class CircleProgressView extends View implements ValueAnimator.AnimatorUp
      * @param _animationDuration the duration of the animation in milliseconds
      */
     public void setValueAnimated(float _valueFrom, float _valueTo, long _animationDuration) {
+        if (mRestoring && mSuppressEntryAnimationOnRestore) {
+            setValue(_valueTo);
+            return;
+        }
         // round to block
-        if (mShowBlock && mRoundToBlock) {
-            float value_per_block = mMaxValue / (float) mBlockCount;
+        if (mStyle.isShowBlock() && mRoundToBlock) {
+            float value_per_block = mMaxValue / (float) mStyle.getBlockCount();
             _valueTo = Math.round(_valueTo / value_per_block) * value_per_block;
 
         } else if (mRoundToWholeNumber) {
@@ -470,47 +605,450 @@ public class CircleProgressView extends View implements ValueAnimator.AnimatorUp
     }
 
     private void animateProgress() {
-        progressAnimator = ValueAnimator.ofFloat(mValueFrom, mValueTo);
-        progressAnimator.setDuration(mAnimationDuration);
-        progressAnimator.addUpdateListener(this);
-        progressAnimator.setInterpolator(new LinearInterpolator());
-        progressAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                if (animationFinishListener != null) {
-                    animationFinishListener.onAnimationUpdateListener();
-                }
-            }
-        });
-        progressAnimator.start();
+        mAnimationPlayTime = 0;
+        mAnimationEasing = mEasing;
+        mScaledAnimationDuration = scaleDuration(mAnimationDuration);
+        if (mScaledAnimationDuration <= 0) {
+            // animations are turned off in the system settings
+            mAnimating = false;
+            mCurrentValue = mValueTo;
+            invalidate();
+            onValueAnimationEnd();
+            return;
+        }
+        mCurrentValue = mValueFrom;
+        mAnimating = true;
+        startAnimator();
+        mAnimationStart = mAnimatorTime;
     }
 
+    /**
+     * Starts the animator if it is not running yet, animations start at {@link #mAnimatorTime}.
+     */
+    private void startAnimator() {
+        if (mAnimator == null) {
+            mAnimator = new TimeAnimator();
+            mAnimator.setTimeListener(this);
+        }
+        if (!mAnimator.isStarted()) {
+            mAnimatorTime = 0;
+            mLastFrameTime = Long.MIN_VALUE / 2;
+            mAnimator.start();
+        }
+    }
+
+    /**
+     * The animator ticks in real time, durations are scaled like the ones of a ValueAnimator,
+     * e.g. by "Remove animations" or the animator duration scale of the developer options.
+     *
+     * @return the scaled duration, 0 if animations are turned off.
+     */
+    private long scaleDuration(long _duration) {
+        float scale;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            scale = ValueAnimator.getDurationScale();
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            scale = Settings.Global.getFloat(getContext().getContentResolver(), Settings.Global.ANIMATOR_DURATION_SCALE, 1f);
+        } else {
+            scale = 1f;
+        }
+        return (long) (_duration * scale);
+    }
+
+    public Easing getEasing() {
+        return mEasing;
+    }
+
+    /**
+     * Sets the easing curve used by {@link #setValueAnimated(float, float, long)}.
+     * Applies to animations started afterwards.
+     *
+     * @param _easing The easing, e.g. {@link Easing#easeOut()} or {@link Easing#cubicBezier(float, float, float, float)}.
+     */
+    public void setEasing(@NonNull Easing _easing) {
+        mEasing = _easing;
+    }
+
+    /**
+     * Pauses the value and the ring animations. Animations started while paused run once resumed.
+     */
     @RequiresApi(api = Build.VERSION_CODES.KITKAT)
     public void pauseAnimation() {
-        if (progressAnimator != null && !progressAnimator.isPaused()) {
-            progressAnimator.pause();
+        if (mAnimator != null && !mAnimator.isPaused()) {
+            mAnimator.pause();
         }
     }
 
     @RequiresApi(api = Build.VERSION_CODES.KITKAT)
     public void resumeAnimation() {
-        if (progressAnimator != null && progressAnimator.isPaused()) {
-            progressAnimator.resume();
+        if (mAnimator != null && mAnimator.isPaused()) {
+            mAnimator.resume();
         }
     }
 
+    /**
+     * @return true if the value and ring animations are paused.
+     */
     @RequiresApi(api = Build.VERSION_CODES.KITKAT)
     public boolean isAnimationPaused() {
-        if (progressAnimator != null) {
-            return progressAnimator.isPaused();
+        return mAnimator != null && mAnimator.isPaused();
+    }
+
+    /**
+     * Adds a ring inside the innermost ring, concentric mode. The view's own value is shown by the
+     * outer ring, added rings are measured, drawn and animated together with it.
+     *
+     * @param _style    The appearance of the ring.
+     * @param _maxValue The max value of the ring.
+     * @return the index of the ring.
+     */
+    public int addRing(@NonNull CircleProgressStyle _style, @FloatRange(from = 0) float _maxValue) {
+        Ring ring = new Ring();
+        ring.mStyle = _style;
+        ring.mMaxValue = _maxValue;
+        mRings.add(ring);
+        setupBounds();
+        setupPaints();
+        invalidate();
+        return mRings.size() - 1;
+    }
+
+    public void removeAllRings() {
+        mRings.clear();
+        if (mAnimator != null && !mAnimating) {
+            mAnimator.end();
         }
-        return false;
+        setupPaints();
+        invalidate();
+    }
+
+    public int getRingCount() {
+        return mRings.size();
+    }
+
+    public CircleProgressStyle getRingStyle(int _index) {
+        return mRings.get(_index).mStyle;
+    }
+
+    public void setRingStyle(int _index, @NonNull CircleProgressStyle _style) {
+        mRings.get(_index).mStyle = _style;
+        setupBounds();
+        setupPaints();
+        invalidate();
+    }
+
+    public float getRingMaxValue(int _index) {
+        return mRings.get(_index).mMaxValue;
+    }
+
+    public void setRingMaxValue(int _index, @FloatRange(from = 0) float _maxValue) {
+        mRings.get(_index).mMaxValue = _maxValue;
+        invalidate();
+    }
+
+    public float getRingValue(int _index) {
+        return mRings.get(_index).mValue;
+    }
+
+    /**
+     * Sets the value of a ring without animation, stops its animation.
+     */
+    public void setRingValue(int _index, float _value) {
+        Ring ring = mRings.get(_index);
+        ring.mAnimating = false;
+        ring.mValue = _value;
+        invalidate();
+    }
+
+    /**
+     * Animates the value of a ring from its current value, using the easing of the view.
+     * The rings are animated by the same animator as the value of the view.
+     *
+     * @param _index             the index of the ring.
+     * @param _valueTo           value after animation
+     * @param _animationDuration the duration of the animation in milliseconds
+     */
+    public void setRingValueAnimated(int _index, float _valueTo, long _animationDuration) {
+        long duration = scaleDuration(_animationDuration);
+        if (duration <= 0) {
+            setRingValue(_index, _valueTo);
+            return;
+        }
+        startAnimator();
+        Ring ring = mRings.get(_index);
+        ring.mValueFrom = ring.mValue;
+        ring.mValueTo = _valueTo;
+        ring.mAnimationStart = mAnimatorTime;
+        ring.mAnimationDuration = duration;
+        ring.mAnimating = true;
+    }
+
+    public int getTickCount() {
+        return mStyle.getTickCount();
+    }
+
+    /**
+     * @param _tickCount The number of graduation ticks around the circle, 0 for none.
+     */
+    public void setTickCount(@IntRange(from = 0) int _tickCount) {
+        setStyle(mStyle.buildUpon().tickCount(_tickCount).build());
+    }
+
+    public int getTickLength() {
+        return mStyle.getTickLength();
+    }
+
+    /**
+     * @param _tickLength The length in pixel of a tick, centered on the circle.
+     */
+    public void setTickLength(@IntRange(from = 0) int _tickLength) {
+        setStyle(mStyle.buildUpon().tickLength(_tickLength).build());
+    }
+
+    public int getTickWidth() {
+        return mStyle.getTickWidth();
+    }
+
+    public void setTickWidth(@IntRange(from = 0) int _tickWidth) {
+        setStyle(mStyle.buildUpon().tickWidth(_tickWidth).build());
+    }
+
+    public int getTickColor() {
+        return mStyle.getTickColor();
+    }
+
+    public void setTickColor(@ColorInt int _tickColor) {
+        setStyle(mStyle.buildUpon().tickColor(_tickColor).build());
+    }
+
+    public float[] getMarkers() {
+        return mMarkerValues.clone();
+    }
+
+    /**
+     * Sets threshold markers, e.g. a target value, drawn across the circle on top of the bar.
+     *
+     * @param _values The marker values, relative to the max value like the value.
+     */
+    public void setMarkers(float... _values) {
+        mMarkerValues = _values.clone();
+        setupTicks();
+        invalidate();
+    }
+
+    public int getRingSpacing() {
+        return mRingSpacing;
+    }
+
+    /**
+     * @param _ringSpacing The space in pixel between two concentric rings.
+     */
+    public void setRingSpacing(@IntRange(from = 0) int _ringSpacing) {
+        mRingSpacing = _ringSpacing;
+        setupBounds();
+        // the ring sizes decide their render quality
+        setupPaints();
+        invalidate();
+    }
+
+    /**
+     * @return true if a ring is still animating.
+     */
+    private boolean updateRings(long _totalTime) {
+        boolean running = false;
+        for (int i = 0, size = mRings.size(); i < size; i++) {
+            Ring ring = mRings.get(i);
+            if (!ring.mAnimating) {
+                continue;
+            }
+            float fraction = Math.min(1f, (_totalTime - ring.mAnimationStart) / (float) ring.mAnimationDuration);
+            ring.mValue = ring.mValueFrom + (ring.mValueTo - ring.mValueFrom) * mEasing.getInterpolation(fraction);
+            if (fraction >= 1f) {
+                ring.mAnimating = false;
+            } else {
+                running = true;
+            }
+        }
+        return running;
+    }
+
+    public boolean getContinueAnimationOnRestore() {
+        return mContinueAnimationOnRestore;
+    }
+
+    /**
+     * @param _continueAnimation true to continue an animation that was running when the state was saved
+     *                           with its remaining part, false to jump to its final value.
+     */
+    public void setContinueAnimationOnRestore(boolean _continueAnimation) {
+        mContinueAnimationOnRestore = _continueAnimation;
+    }
+
+    public boolean getSuppressEntryAnimationOnRestore() {
+        return mSuppressEntryAnimationOnRestore;
+    }
+
+    /**
+     * @param _suppressEntryAnimation true to show restored views without any animation: the saved
+     *                                animation jumps to its final value and animated values set
+     *                                before the first frame after the restore are set directly.
+     */
+    public void setSuppressEntryAnimationOnRestore(boolean _suppressEntryAnimation) {
+        mSuppressEntryAnimationOnRestore = _suppressEntryAnimation;
     }
 
     public void setAnimationFinishListener(AnimationFinishListener animationFinishListener) {
         this.animationFinishListener = animationFinishListener;
     }
 
+    public void setOnValueChangedListener(OnValueChangedListener onValueChangedListener) {
+        mOnValueChangedListener = onValueChangedListener;
+        mLastDispatchedValue = Float.NaN;
+    }
+
+    public ValueDispatchMode getValueDispatchMode() {
+        return mValueDispatchMode;
+    }
+
+    public float getValueDispatchStep() {
+        return mValueDispatchStep;
+    }
+
+    /**
+     * Sets how often the {@link OnValueChangedListener} is called while the value changes.
+     *
+     * @param _mode The dispatch mode. Use {@link #setValueDispatchMode(ValueDispatchMode, float)}
+     *              for {@link ValueDispatchMode#UNITS} and {@link ValueDispatchMode#INTERVAL}.
+     */
+    public void setValueDispatchMode(@NonNull ValueDispatchMode _mode) {
+        setValueDispatchMode(_mode, mValueDispatchStep);
+    }
+
+    /**
+     * Sets how often the {@link OnValueChangedListener} is called while the value changes.
+     * The final value of an animation and values set by {@link #setValue(float)} are always dispatched.
+     *
+     * @param _mode The dispatch mode.
+     * @param _step The amount of units for {@link ValueDispatchMode#UNITS} or the
+     *              interval in ms for {@link ValueDispatchMode#INTERVAL}. Ignored otherwise.
+     */
+    public void setValueDispatchMode(@NonNull ValueDispatchMode _mode, @FloatRange(from = 0) float _step) {
+        mValueDispatchMode = _mode;
+        mValueDispatchStep = Math.max(0, _step);
+    }
+
+    public boolean isRenderNodeEnabled() {
+        return mRenderNodeEnabled;
+    }
+
+    /**
+     * On API 29+ with hardware acceleration the rim and the full bar of block styles are recorded
+     * once into {@link RenderNode}s, which are only re-recorded if the appearance changes. Each frame
+     * then just replays them and, for the bar, sets a clip for the current value.
+     * Continuous styles draw a single arc per ring and are always drawn directly.
+     * Disable to always draw directly to the canvas.
+     *
+     * @param _renderNodeEnabled true to use render nodes where available.
+     */
+    public void setRenderNodeEnabled(boolean _renderNodeEnabled) {
+        mRenderNodeEnabled = _renderNodeEnabled;
+        invalidate();
+    }
+
+    public RenderQuality getRenderQuality() {
+        return mRenderQuality;
+    }
+
+    /**
+     * Sets the render quality policy. Can be changed at any time.
+     *
+     * @param _renderQuality The render quality.
+     */
+    public void setRenderQuality(@NonNull RenderQuality _renderQuality) {
+        mRenderQuality = _renderQuality;
+        setupPaints();
+        invalidate();
+    }
+
+    /**
+     * @return The render quality currently used, {@link RenderQuality#LOW_POWER} while the
+     * system is in power save mode and the view follows it.
+     */
+    public RenderQuality getEffectiveRenderQuality() {
+        return mFollowPowerSaveMode && mPowerSaveMode ? RenderQuality.LOW_POWER : mRenderQuality;
+    }
+
+    public boolean getFollowPowerSaveMode() {
+        return mFollowPowerSaveMode;
+    }
+
+    /**
+     * @param _followPowerSaveMode true to switch to {@link RenderQuality#LOW_POWER} while the
+     *                             system is in power save mode. Requires API 21.
+     */
+    public void setFollowPowerSaveMode(boolean _followPowerSaveMode) {
+        mFollowPowerSaveMode = _followPowerSaveMode;
+        if (_followPowerSaveMode && getWindowToken() != null) {
+            registerPowerSaveReceiver();
+        } else if (!_followPowerSaveMode) {
+            unregisterPowerSaveReceiver();
+        }
+        setupPaints();
+        invalidate();
+    }
+
+    public int getMaxFrameRate() {
+        return mMaxFrameRate;
+    }
+
+    /**
+     * @param _maxFrameRate The max animation frames per second if the render quality is not
+     *                      {@link RenderQuality#FULL}. 0 for no limit.
+     */
+    public void setMaxFrameRate(@IntRange(from = 0) int _maxFrameRate) {
+        mMaxFrameRate = Math.max(0, _maxFrameRate);
+    }
+
+    public int getLowQualitySize() {
+        return mLowQualitySize;
+    }
+
+    /**
+     * @param _lowQualitySize Rings with a smaller diameter in pixel are drawn without gradient
+     *                        (and without anti-aliasing in low power) if the render quality is
+     *                        not {@link RenderQuality#FULL}.
+     */
+    public void setLowQualitySize(@IntRange(from = 0) int _lowQualitySize) {
+        mLowQualitySize = _lowQualitySize;
+        setupPaints();
+        invalidate();
+    }
+
+    public boolean isAntiAliasDisabledInLowPower() {
+        return mAntiAliasDisabledInLowPower;
+    }
+
+    public void setAntiAliasDisabledInLowPower(boolean _antiAliasDisabled) {
+        mAntiAliasDisabledInLowPower = _antiAliasDisabled;
+        setupPaints();
+        invalidate();
+    }
+
+    public long getAccessibilityEventInterval() {
+        return mAccessibilityEventInterval;
+    }
+
+    /**
+     * Value changes are reported to accessibility services at most once per interval.
+     * Changes in between are coalesced into the next event, the final value of an animation
+     * is always reported.
+     *
+     * @param _intervalMs The minimum time in ms between two accessibility events.
+     */
+    public void setAccessibilityEventInterval(@IntRange(from = 0) long _intervalMs) {
+        mAccessibilityEventInterval = Math.max(0, _intervalMs);
+    }
+
     //endregion getter/setter
     //----------------------------------
 
@@ -521,42 +1059,44 @@ public class CircleProgressView extends View implements ValueAnimator.AnimatorUp
      * @param a the attributes to parse
      */
     private void parseAttributes(TypedArray a) {
-        setBarWidth((int) a.getDimension(R.styleable.CircleProgressView_cpv_barWidth,
-                mBarWidth));
+        CircleProgressStyle.Builder style = mStyle.buildUpon();
 
-        setRimWidth((int) a.getDimension(R.styleable.CircleProgressView_cpv_rimWidth,
-                mRimWidth));
+        style.barWidth((int) a.getDimension(R.styleable.CircleProgressView_cpv_barWidth,
+                mStyle.getBarWidth()));
 
-        setDirection(Direction.values()[a.getInt(R.styleable.CircleProgressView_cpv_direction, 0)]);
+        style.rimWidth((int) a.getDimension(R.styleable.CircleProgressView_cpv_rimWidth,
+                mStyle.getRimWidth()));
+
+        style.direction(Direction.values()[a.getInt(R.styleable.CircleProgressView_cpv_direction, 0)]);
 
         float value = a.getFloat(R.styleable.CircleProgressView_cpv_value, mCurrentValue);
         setValue(value);
         mCurrentValue = value;
 
         if (a.hasValue(R.styleable.CircleProgressView_cpv_barColor) && a.hasValue(R.styleable.CircleProgressView_cpv_barColor1) && a.hasValue(R.styleable.CircleProgressView_cpv_barColor2) && a.hasValue(R.styleable.CircleProgressView_cpv_barColor3)) {
-            mBarColors = new int[]{a.getColor(R.styleable.CircleProgressView_cpv_barColor, mBarColorStandard), a.getColor(R.styleable.CircleProgressView_cpv_barColor1, mBarColorStandard), a.getColor(R.styleable.CircleProgressView_cpv_barColor2, mBarColorStandard), a.getColor(R.styleable.CircleProgressView_cpv_barColor3, mBarColorStandard)};
+            style.barColors(a.getColor(R.styleable.CircleProgressView_cpv_barColor, mBarColorStandard), a.getColor(R.styleable.CircleProgressView_cpv_barColor1, mBarColorStandard), a.getColor(R.styleable.CircleProgressView_cpv_barColor2, mBarColorStandard), a.getColor(R.styleable.CircleProgressView_cpv_barColor3, mBarColorStandard));
 
         } else if (a.hasValue(R.styleable.CircleProgressView_cpv_barColor) && a.hasValue(R.styleable.CircleProgressView_cpv_barColor1) && a.hasValue(R.styleable.CircleProgressView_cpv_barColor2)) {
 
-            mBarColors = new int[]{a.getColor(R.styleable.CircleProgressView_cpv_barColor, mBarColorStandard), a.getColor(R.styleable.CircleProgressView_cpv_barColor1, mBarColorStandard), a.getColor(R.styleable.CircleProgressView_cpv_barColor2, mBarColorStandard)};
+            style.barColors(a.getColor(R.styleable.CircleProgressView_cpv_barColor, mBarColorStandard), a.getColor(R.styleable.CircleProgressView_cpv_barColor1, mBarColorStandard), a.getColor(R.styleable.CircleProgressView_cpv_barColor2, mBarColorStandard));
 
         } else if (a.hasValue(R.styleable.CircleProgressView_cpv_barColor) && a.hasValue(R.styleable.CircleProgressView_cpv_barColor1)) {
 
-            mBarColors = new int[]{a.getColor(R.styleable.CircleProgressView_cpv_barColor, mBarColorStandard), a.getColor(R.styleable.CircleProgressView_cpv_barColor1, mBarColorStandard)};
+            style.barColors(a.getColor(R.styleable.CircleProgressView_cpv_barColor, mBarColorStandard), a.getColor(R.styleable.CircleProgressView_cpv_barColor1, mBarColorStandard));
 
         } else {
-            mBarColors = new int[]{a.getColor(R.styleable.CircleProgressView_cpv_barColor, mBarColorStandard), a.getColor(R.styleable.CircleProgressView_cpv_barColor, mBarColorStandard)};
+            style.barColors(a.getColor(R.styleable.CircleProgressView_cpv_barColor, mBarColorStandard), a.getColor(R.styleable.CircleProgressView_cpv_barColor, mBarColorStandard));
         }
 
         if (a.hasValue(R.styleable.CircleProgressView_cpv_barStrokeCap)) {
-            setBarStrokeCap(StrokeCap.values()[a.getInt(R.styleable.CircleProgressView_cpv_barStrokeCap, 0)].paintCap);
+            style.barStrokeCap(StrokeCap.values()[a.getInt(R.styleable.CircleProgressView_cpv_barStrokeCap, 0)].paintCap);
         }
 
-        setRimColor(a.getColor(R.styleable.CircleProgressView_cpv_rimColor,
-                mRimColor));
+        style.rimColor(a.getColor(R.styleable.CircleProgressView_cpv_rimColor,
+                mStyle.getRimColor()));
 
-        setFillCircleColor(a.getColor(R.styleable.CircleProgressView_cpv_fillColor,
-                mBackgroundCircleColor));
+        style.fillColor(a.getColor(R.styleable.CircleProgressView_cpv_fillColor,
+                mStyle.getFillColor()));
 
         setMaxValue(a.getFloat(R.styleable.CircleProgressView_cpv_maxValue, mMaxValue));
 
@@ -566,13 +1106,55 @@ public class CircleProgressView extends View implements ValueAnimator.AnimatorUp
         setRoundToBlock(a.getBoolean(R.styleable.CircleProgressView_cpv_roundToBlock, mRoundToBlock));
         setRoundToWholeNumber(a.getBoolean(R.styleable.CircleProgressView_cpv_roundToWholeNumber, mRoundToWholeNumber));
 
-        setStartAngle(a.getInt(R.styleable.CircleProgressView_cpv_startAngle, mStartAngle));
+        style.startAngle(a.getInt(R.styleable.CircleProgressView_cpv_startAngle, mStyle.getStartAngle()));
+
+        if (a.hasValue(R.styleable.CircleProgressView_cpv_easingCubicBezier)) {
+            setEasing(Easing.cubicBezier(a.getString(R.styleable.CircleProgressView_cpv_easingCubicBezier)));
+        } else {
+            switch (a.getInt(R.styleable.CircleProgressView_cpv_easing, 0)) {
+                case 1:
+                    setEasing(Easing.easeOut());
+                    break;
+                case 2:
+                    setEasing(Easing.easeInOut());
+                    break;
+                case 3:
+                    setEasing(Easing.overshoot());
+                    break;
+                default:
+                    setEasing(Easing.linear());
+                    break;
+            }
+        }
+
+        mRenderQuality = RenderQuality.values()[a.getInt(R.styleable.CircleProgressView_cpv_renderQuality, mRenderQuality.ordinal())];
+        mFollowPowerSaveMode = a.getBoolean(R.styleable.CircleProgressView_cpv_followPowerSaveMode, mFollowPowerSaveMode);
+        setMaxFrameRate(a.getInt(R.styleable.CircleProgressView_cpv_maxFrameRate, mMaxFrameRate));
+        mLowQualitySize = (int) a.getDimension(R.styleable.CircleProgressView_cpv_lowQualitySize, mLowQualitySize);
+
+        mRenderNodeEnabled = a.getBoolean(R.styleable.CircleProgressView_cpv_renderNodeEnabled, mRenderNodeEnabled);
+
+        setContinueAnimationOnRestore(a.getBoolean(R.styleable.CircleProgressView_cpv_continueAnimationOnRestore, mContinueAnimationOnRestore));
+        setSuppressEntryAnimationOnRestore(a.getBoolean(R.styleable.CircleProgressView_cpv_suppressEntryAnimationOnRestore, mSuppressEntryAnimationOnRestore));
+
+        setAccessibilityEventInterval(a.getInt(R.styleable.CircleProgressView_cpv_accessibilityEventInterval, (int) mAccessibilityEventInterval));
+
+        style.tickCount(a.getInt(R.styleable.CircleProgressView_cpv_tickCount, mStyle.getTickCount()));
+        style.tickLength((int) a.getDimension(R.styleable.CircleProgressView_cpv_tickLength, mStyle.getTickLength()));
+        style.tickWidth((int) a.getDimension(R.styleable.CircleProgressView_cpv_tickWidth, mStyle.getTickWidth()));
+        style.tickColor(a.getColor(R.styleable.CircleProgressView_cpv_tickColor, mStyle.getTickColor()));
+        style.markerLength((int) a.getDimension(R.styleable.CircleProgressView_cpv_markerLength, mStyle.getMarkerLength()));
+        style.markerWidth((int) a.getDimension(R.styleable.CircleProgressView_cpv_markerWidth, mStyle.getMarkerWidth()));
+        style.markerColor(a.getColor(R.styleable.CircleProgressView_cpv_markerColor, mStyle.getMarkerColor()));
 
         if (a.hasValue(R.styleable.CircleProgressView_cpv_blockCount)) {
-            setBlockCount(a.getInt(R.styleable.CircleProgressView_cpv_blockCount, 1));
-            setBlockScale(a.getFloat(R.styleable.CircleProgressView_cpv_blockScale, 0.9f));
+            int blockCount = a.getInt(R.styleable.CircleProgressView_cpv_blockCount, 1);
+            style.showBlock(blockCount > 1).blockCount(blockCount);
+            style.blockScale(a.getFloat(R.styleable.CircleProgressView_cpv_blockScale, 0.9f));
         }
 
+        setStyle(style.build());
+
         // Recycle
         a.recycle();
     }
@@ -639,7 +1221,7 @@ public class CircleProgressView extends View implements ValueAnimator.AnimatorUp
         mLayoutHeight = h;
 
         setupBounds();
-        setupBarPaint();
+        setupPaints();
 
         invalidate();
     }
@@ -656,7 +1238,7 @@ public class CircleProgressView extends View implements ValueAnimator.AnimatorUp
 
     private RectF getInnerCircleRect(RectF _circleBounds) {
 
-        double circleWidth = +_circleBounds.width() - (Math.max(mBarWidth, mRimWidth));
+        double circleWidth = +_circleBounds.width() - (Math.max(mStyle.getBarWidth(), mStyle.getRimWidth()));
         double width = ((circleWidth / 2d) * Math.sqrt(2d));
         float widthDelta = (_circleBounds.width() - (float) width) / 2f;
 
@@ -693,7 +1275,9 @@ public class CircleProgressView extends View implements ValueAnimator.AnimatorUp
         int width = getWidth(); //this.getLayoutParams().width;
         int height = getHeight(); //this.getLayoutParams().height;
 
-        float circleWidthHalf = mBarWidth / 2f > mRimWidth / 2f ? mBarWidth / 2f : mRimWidth / 2f;
+        int barWidth = mStyle.getBarWidth();
+        int rimWidth = mStyle.getRimWidth();
+        float circleWidthHalf = barWidth / 2f > rimWidth / 2f ? barWidth / 2f : rimWidth / 2f;
 
         mCircleBounds = new RectF(paddingLeft + circleWidthHalf,
                 paddingTop + circleWidthHalf,
@@ -701,67 +1285,151 @@ public class CircleProgressView extends View implements ValueAnimator.AnimatorUp
                 height - paddingBottom - circleWidthHalf);
 
 
-        mInnerCircleBound = new RectF(paddingLeft + (mBarWidth),
-                paddingTop + (mBarWidth),
-                width - paddingRight - (mBarWidth),
-                height - paddingBottom - (mBarWidth));
+        mInnerCircleBound = new RectF(paddingLeft + (barWidth),
+                paddingTop + (barWidth),
+                width - paddingRight - (barWidth),
+                height - paddingBottom - (barWidth));
         mCenter = new PointF(mCircleBounds.centerX(), mCircleBounds.centerY());
-    }
 
-    private void setupBarPaint() {
-        if (mBarColors.length > 1) {
-            mBarPaint.setShader(new SweepGradient(mCircleBounds.centerX(), mCircleBounds.centerY(), mBarColors, null));
-            Matrix matrix = new Matrix();
-            mBarPaint.getShader().getLocalMatrix(matrix);
-            matrix.postTranslate(-mCircleBounds.centerX(), -mCircleBounds.centerY());
-
-            matrix.postRotate(mStartAngle);
-            matrix.postTranslate(mCircleBounds.centerX(), mCircleBounds.centerY());
-            mBarPaint.getShader().setLocalMatrix(matrix);
-            //mBarPaint.setColor(mBarColors[0]);
-        } else if (mBarColors.length == 1) {
-            mBarPaint.setColor(mBarColors[0]);
-            mBarPaint.setShader(null);
-        } else {
-            mBarPaint.setColor(mBarColorStandard);
-            mBarPaint.setShader(null);
+        mCenteredCircleBounds.set(mCircleBounds);
+        mCenteredCircleBounds.offset(-mCircleBounds.centerX(), -mCircleBounds.centerY());
+
+        mBarClipBounds.set(mCircleBounds);
+        mBarClipBounds.inset(-barWidth, -barWidth);
+
+        // each ring is inset from the previous one by both half widths and the spacing
+        float previousWidthHalf = circleWidthHalf;
+        RectF previousBounds = mCenteredCircleBounds;
+        for (int i = 0, size = mRings.size(); i < size; i++) {
+            Ring ring = mRings.get(i);
+            float ringWidthHalf = Math.max(ring.mStyle.getBarWidth(), ring.mStyle.getRimWidth()) / 2f;
+            float inset = previousWidthHalf + mRingSpacing + ringWidthHalf;
+            ring.mCenteredBounds.set(previousBounds);
+            ring.mCenteredBounds.inset(inset, inset);
+            ring.mBounds.set(ring.mCenteredBounds);
+            ring.mBounds.offset(mCircleBounds.centerX(), mCircleBounds.centerY());
+            previousWidthHalf = ringWidthHalf;
+            previousBounds = ring.mCenteredBounds;
         }
+        setupTicks();
+        mRenderNodesDirty = true;
+    }
 
-        mBarPaint.setAntiAlias(true);
-        mBarPaint.setStrokeCap(mBarStrokeCap);
-        mBarPaint.setStyle(Style.STROKE);
-        mBarPaint.setStrokeWidth(mBarWidth);
+    /**
+     * Precomputes the tick and marker lines, so each is drawn with a single drawLines call.
+     * The ticks don't change with the value and are recorded with the rim.
+     */
+    private void setupTicks() {
+        int tickCount = mStyle.getTickCount();
+        if (mTickLines.length != tickCount * 4) {
+            mTickLines = new float[tickCount * 4];
+        }
+        for (int i = 0; i < tickCount; i++) {
+            putLine(mTickLines, i, mStyle.getStartAngle() + 360f * i / tickCount, mStyle.getTickLength());
+        }
 
-        if (mBarStrokeCap != Paint.Cap.BUTT) {
-            mShaderlessBarPaint = new Paint(mBarPaint);
-            mShaderlessBarPaint.setShader(null);
-            mShaderlessBarPaint.setColor(mBarColors[0]);
+        if (mMarkerLines.length != mMarkerValues.length * 4) {
+            mMarkerLines = new float[mMarkerValues.length * 4];
         }
+        int direction = mStyle.getDirection() == Direction.CW ? 1 : -1;
+        for (int i = 0; i < mMarkerValues.length; i++) {
+            putLine(mMarkerLines, i, mStyle.getStartAngle() + direction * 360f / mMaxValue * mMarkerValues[i], mStyle.getMarkerLength());
+        }
+        mRenderNodesDirty = true;
     }
 
+    /**
+     * Puts a radial line of the given length, centered on the circle, at the given angle.
+     */
+    private void putLine(float[] _lines, int _index, float _angle, float _length) {
+        double radians = Math.toRadians(_angle);
+        float cos = (float) Math.cos(radians);
+        float sin = (float) Math.sin(radians);
+        float radius = mCircleBounds.width() / 2f;
+        float inner = radius - _length / 2f;
+        float outer = radius + _length / 2f;
+        float centerX = mCircleBounds.centerX();
+        float centerY = mCircleBounds.centerY();
+        _lines[_index * 4] = centerX + cos * inner;
+        _lines[_index * 4 + 1] = centerY + sin * inner;
+        _lines[_index * 4 + 2] = centerX + cos * outer;
+        _lines[_index * 4 + 3] = centerY + sin * outer;
+    }
 
     /**
      * Setup all paints.
-     * Call only if changes to color or size properties are not visible.
+     * The paints belong to the shared style, this only picks the variant matching the render quality.
      */
     public void setupPaints() {
-        setupBarPaint();
-        setupBackgroundCirclePaint();
-        setupRimPaint();
+        float diameter = mCircleBounds.width();
+        mDrawStyle = isAntiAliasEnabled(diameter) ? mStyle : mStyle.withoutAntiAlias();
+        mBarGradientActive = mBarColorRamp == null && mStyle.hasGradient() && !isReducedQuality(diameter);
+        if (mBarColorRamp != null) {
+            // own copy, its color changes with the value
+            if (mRampBarPaint == null) {
+                mRampBarPaint = new Paint();
+            }
+            mRampBarPaint.set(mDrawStyle.getShaderlessBarPaint());
+        }
+        // inner rings are smaller than the outer one, each is judged by its own size
+        for (int i = 0, size = mRings.size(); i < size; i++) {
+            Ring ring = mRings.get(i);
+            float ringDiameter = ring.mBounds.width();
+            ring.mDrawStyle = isAntiAliasEnabled(ringDiameter) ? ring.mStyle : ring.mStyle.withoutAntiAlias();
+            ring.mGradientActive = ring.mStyle.hasGradient() && !isReducedQuality(ringDiameter);
+        }
+        mRenderNodesDirty = true;
+    }
+
+    /**
+     * @param _diameter the diameter of the ring in pixel.
+     * @return true if the ring is drawn with reduced quality, because it is smaller than
+     * {@link #mLowQualitySize} and the render quality is not {@link RenderQuality#FULL}.
+     */
+    private boolean isReducedQuality(float _diameter) {
+        return getEffectiveRenderQuality() != RenderQuality.FULL && _diameter < mLowQualitySize;
+    }
+
+    private boolean isAntiAliasEnabled(float _diameter) {
+        return !(mAntiAliasDisabledInLowPower && getEffectiveRenderQuality() == RenderQuality.LOW_POWER && isReducedQuality(_diameter));
+    }
+
+    private void updatePowerSaveMode() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+            return;
+        }
+        PowerManager powerManager = (PowerManager) getContext().getSystemService(Context.POWER_SERVICE);
+        boolean powerSaveMode = powerManager != null && powerManager.isPowerSaveMode();
+        if (powerSaveMode != mPowerSaveMode) {
+            mPowerSaveMode = powerSaveMode;
+            setupPaints();
+            invalidate();
+        }
+    }
+
+    private void registerPowerSaveReceiver() {
+        if (mPowerSaveReceiverRegistered || Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+            return;
+        }
+        getContext().registerReceiver(mPowerSaveReceiver, new IntentFilter(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED));
+        mPowerSaveReceiverRegistered = true;
+        updatePowerSaveMode();
     }
 
-    private void setupBackgroundCirclePaint() {
-        mBackgroundCirclePaint.setColor(mBackgroundCircleColor);
-        mBackgroundCirclePaint.setAntiAlias(true);
-        mBackgroundCirclePaint.setStyle(Style.FILL);
+    private void unregisterPowerSaveReceiver() {
+        if (mPowerSaveReceiverRegistered) {
+            getContext().unregisterReceiver(mPowerSaveReceiver);
+            mPowerSaveReceiverRegistered = false;
+        }
+        mPowerSaveMode = false;
     }
 
-    private void setupRimPaint() {
-        mRimPaint.setColor(mRimColor);
-        mRimPaint.setAntiAlias(true);
-        mRimPaint.setStyle(Style.STROKE);
-        mRimPaint.setStrokeWidth(mRimWidth);
-        mRimPaint.setStrokeCap(Paint.Cap.ROUND);
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (mFollowPowerSaveMode) {
+            registerPowerSaveReceiver();
+        }
     }
 
     //endregion Setting up stuff
@@ -772,48 +1440,192 @@ public class CircleProgressView extends View implements ValueAnimator.AnimatorUp
 
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
+        mRestoring = false;
 
         float degrees = (360f / mMaxValue * mCurrentValue);
 
-        //Draw the rim
-        if (mRimWidth > 0) {
-            if (!mShowBlock) {
-                canvas.drawArc(mCircleBounds, 360, 360, false, mRimPaint);
+        if (mRenderNodeEnabled && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && canvas.isHardwareAccelerated()
+                && hasBlocks()) {
+            drawRenderNodes(canvas, degrees);
+            return;
+        }
+
+        drawRim(canvas, mDrawStyle, mCircleBounds);
+        drawTicks(canvas);
+        drawBar(canvas, mDrawStyle, mCenteredCircleBounds, degrees, getBarPaint(mDrawStyle), mBarGradientActive);
+        for (int i = 0, size = mRings.size(); i < size; i++) {
+            drawRim(canvas, mRings.get(i).mDrawStyle, mRings.get(i).mBounds);
+        }
+        drawRingBars(canvas);
+        drawMarkers(canvas);
+    }
+
+    private void drawTicks(Canvas _canvas) {
+        if (mTickLines.length > 0) {
+            _canvas.drawLines(mTickLines, mDrawStyle.getTickPaint());
+        }
+    }
+
+    private void drawMarkers(Canvas _canvas) {
+        if (mMarkerLines.length > 0) {
+            _canvas.drawLines(mMarkerLines, mDrawStyle.getMarkerPaint());
+        }
+    }
+
+    private void drawRingBars(Canvas _canvas) {
+        for (int i = 0, size = mRings.size(); i < size; i++) {
+            Ring ring = mRings.get(i);
+            CircleProgressStyle style = ring.mDrawStyle;
+            Paint barPaint = ring.mGradientActive ? style.getBarPaint() : style.getShaderlessBarPaint();
+            drawBar(_canvas, style, ring.mCenteredBounds, 360f / ring.mMaxValue * ring.mValue, barPaint, ring.mGradientActive);
+        }
+    }
+
+    private void drawRim(Canvas _canvas, CircleProgressStyle _style, RectF _circleBounds) {
+        if (_style.getRimWidth() > 0) {
+            if (!_style.isShowBlock()) {
+                _canvas.drawArc(_circleBounds, 360, 360, false, _style.getRimPaint());
             } else {
-                drawBlocks(canvas, mCircleBounds, mStartAngle, 360, false, mRimPaint);
+                drawBlocks(_canvas, _style, _circleBounds, _style.getStartAngle(), 360, false, _style.getRimPaint());
+            }
+        }
+    }
+
+    /**
+     * @return true if a ring draws its rim in blocks, one arc per block. Only then replaying a
+     * recorded rim saves work over drawing it, a continuous rim is a single arc either way.
+     */
+    private boolean hasBlocks() {
+        if (mDrawStyle.isShowBlock()) {
+            return true;
+        }
+        for (int i = 0, size = mRings.size(); i < size; i++) {
+            if (mRings.get(i).mDrawStyle.isShowBlock()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Draws the recorded rim and bar, re-recording them only if the appearance changed.
+     * The recorded bar is only used for clockwise blocks with butt caps, because there the blocks
+     * don't move with the value and clipping to the current sweep gives the same blocks. With round
+     * or square caps the clip would cut the caps at the start and at the end of the last block.
+     * Any other bar is drawn directly.
+     */
+    @RequiresApi(api = Build.VERSION_CODES.Q)
+    private void drawRenderNodes(Canvas _canvas, float _degrees) {
+        if (mRimNode == null) {
+            mRimNode = new RenderNode("CircleProgressRim");
+            mBarNode = new RenderNode("CircleProgressBar");
+        }
+        boolean recordBar = mDrawStyle.isShowBlock() && mDrawStyle.getDirection() == Direction.CW
+                && mDrawStyle.getBarStrokeCap() == Paint.Cap.BUTT && mBarColorRamp == null;
+        if (mRenderNodesDirty || !mRimNode.hasDisplayList() || (recordBar && !mBarNode.hasDisplayList())) {
+            recordRenderNodes(recordBar);
+        }
+
+        _canvas.drawRenderNode(mRimNode);
+
+        if (!recordBar) {
+            drawBar(_canvas, mDrawStyle, mCenteredCircleBounds, _degrees, getBarPaint(mDrawStyle), mBarGradientActive);
+        } else if (_degrees >= 360) {
+            _canvas.drawRenderNode(mBarNode);
+        } else if (_degrees > 0) {
+            mBarClipPath.rewind();
+            mBarClipPath.moveTo(mCircleBounds.centerX(), mCircleBounds.centerY());
+            mBarClipPath.arcTo(mBarClipBounds, mDrawStyle.getStartAngle(), _degrees, false);
+            mBarClipPath.close();
+
+            int saveCount = _canvas.save();
+            _canvas.clipPath(mBarClipPath);
+            _canvas.drawRenderNode(mBarNode);
+            _canvas.restoreToCount(saveCount);
+        }
+        drawRingBars(_canvas);
+        drawMarkers(_canvas);
+    }
+
+    @RequiresApi(api = Build.VERSION_CODES.Q)
+    private void recordRenderNodes(boolean _recordBar) {
+        mRimNode.setPosition(0, 0, getWidth(), getHeight());
+        RecordingCanvas rimCanvas = mRimNode.beginRecording();
+        try {
+            drawRim(rimCanvas, mDrawStyle, mCircleBounds);
+            drawTicks(rimCanvas);
+            for (int i = 0, size = mRings.size(); i < size; i++) {
+                drawRim(rimCanvas, mRings.get(i).mDrawStyle, mRings.get(i).mBounds);
             }
+        } finally {
+            mRimNode.endRecording();
         }
-        drawBar(canvas, degrees);
+
+        if (_recordBar) {
+            mBarNode.setPosition(0, 0, getWidth(), getHeight());
+            RecordingCanvas barCanvas = mBarNode.beginRecording();
+            try {
+                barCanvas.translate(mCircleBounds.centerX(), mCircleBounds.centerY());
+                drawBlocks(barCanvas, mDrawStyle, mCenteredCircleBounds, mDrawStyle.getStartAngle(), 360, false, getBarPaint(mDrawStyle));
+            } finally {
+                mBarNode.endRecording();
+            }
+        }
+        mRenderNodesDirty = false;
     }
 
-    private void drawBlocks(Canvas _canvas, RectF circleBounds, float startAngle, float _degrees, boolean userCenter, Paint paint) {
+    private void drawBlocks(Canvas _canvas, CircleProgressStyle _style, RectF circleBounds, float startAngle, float _degrees, boolean userCenter, Paint paint) {
+        float blockDegree = _style.getBlockDegree();
+        float blockScaleDegree = _style.getBlockScaleDegree();
         float tmpDegree = 0.0f;
         while (tmpDegree < _degrees) {
-            _canvas.drawArc(circleBounds, startAngle + tmpDegree, Math.min(mBlockScaleDegree, _degrees - tmpDegree), userCenter, paint);
-            tmpDegree += mBlockDegree;
+            _canvas.drawArc(circleBounds, startAngle + tmpDegree, Math.min(blockScaleDegree, _degrees - tmpDegree), userCenter, paint);
+            tmpDegree += blockDegree;
+        }
+    }
+
+    private Paint getBarPaint(CircleProgressStyle _style) {
+        if (mBarColorRamp != null) {
+            mRampBarPaint.setColor(mBarColorRamp.getColor(mCurrentValue / mMaxValue));
+            return mRampBarPaint;
         }
+        return mBarGradientActive ? _style.getBarPaint() : _style.getShaderlessBarPaint();
     }
 
-    private void drawBar(Canvas _canvas, float _degrees) {
-        float startAngle = mDirection == Direction.CW ? mStartAngle : mStartAngle - _degrees;
-        if (!mShowBlock) {
+    /**
+     * Draws the bar. The gradient of the shared bar paint is centered at (0,0),
+     * so the bar is drawn with the canvas translated to the center of the circle.
+     *
+     * @param _bounds         the bounds of the ring relative to the center.
+     * @param _gradientActive true if the bar paint has a gradient.
+     */
+    private void drawBar(Canvas _canvas, CircleProgressStyle _style, RectF _bounds, float _degrees, Paint _barPaint, boolean _gradientActive) {
+        int startAngle = _style.getStartAngle();
+        float barStartAngle = _style.getDirection() == Direction.CW ? startAngle : startAngle - _degrees;
+        RectF bounds = _bounds;
+
+        int saveCount = _canvas.save();
+        _canvas.translate(mCircleBounds.centerX(), mCircleBounds.centerY());
+        if (!_style.isShowBlock()) {
 
-            if (mBarStrokeCap != Paint.Cap.BUTT && _degrees > 0 && mBarColors.length > 1) {
+            if (_style.getBarStrokeCap() != Paint.Cap.BUTT && _degrees > 0 && _gradientActive) {
+                Paint shaderlessBarPaint = _style.getShaderlessBarPaint();
                 if (_degrees > 180) {
-                    _canvas.drawArc(mCircleBounds, startAngle, _degrees / 2, false, mBarPaint);
-                    _canvas.drawArc(mCircleBounds, startAngle, 1, false, mShaderlessBarPaint);
-                    _canvas.drawArc(mCircleBounds, startAngle + (_degrees / 2), _degrees / 2, false, mBarPaint);
+                    _canvas.drawArc(bounds, barStartAngle, _degrees / 2, false, _barPaint);
+                    _canvas.drawArc(bounds, barStartAngle, 1, false, shaderlessBarPaint);
+                    _canvas.drawArc(bounds, barStartAngle + (_degrees / 2), _degrees / 2, false, _barPaint);
                 } else {
-                    _canvas.drawArc(mCircleBounds, startAngle, _degrees, false, mBarPaint);
-                    _canvas.drawArc(mCircleBounds, startAngle, 1, false, mShaderlessBarPaint);
+                    _canvas.drawArc(bounds, barStartAngle, _degrees, false, _barPaint);
+                    _canvas.drawArc(bounds, barStartAngle, 1, false, shaderlessBarPaint);
                 }
 
             } else {
-                _canvas.drawArc(mCircleBounds, startAngle, _degrees, false, mBarPaint);
+                _canvas.drawArc(bounds, barStartAngle, _degrees, false, _barPaint);
             }
         } else {
-            drawBlocks(_canvas, mCircleBounds, startAngle, _degrees, false, mBarPaint);
+            drawBlocks(_canvas, _style, bounds, barStartAngle, _degrees, false, _barPaint);
         }
+        _canvas.restoreToCount(saveCount);
     }
 
     //endregion draw
@@ -840,17 +1652,460 @@ public class CircleProgressView extends View implements ValueAnimator.AnimatorUp
 
     private float getRotationAngleForPointFromStart(PointF point) {
         long angle = Math.round(calcRotationAngleInDegrees(mCenter, point));
-        float fromStart = mDirection == Direction.CW ? angle - mStartAngle : mStartAngle - angle;
+        int startAngle = mStyle.getStartAngle();
+        float fromStart = mStyle.getDirection() == Direction.CW ? angle - startAngle : startAngle - angle;
         return normalizeAngle(fromStart);
     }
 
+    //endregion touch input
+    //----------------------------------
+
+    //----------------------------------
+    //region saved state
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        SavedState state = new SavedState(super.onSaveInstanceState());
+        state.mCurrentValue = mCurrentValue;
+        state.mValueFrom = mValueFrom;
+        state.mValueTo = mValueTo;
+        state.mAnimationDuration = mAnimationDuration;
+        if (mAnimating) {
+            state.mAnimationRunning = true;
+            state.mAnimationFraction = Math.min(1f, mAnimationPlayTime / (float) mScaledAnimationDuration);
+            state.mAnimationPaused = Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT && isAnimationPaused();
+        }
+        state.mRingValues = new float[mRings.size()];
+        for (int i = 0; i < state.mRingValues.length; i++) {
+            Ring ring = mRings.get(i);
+            state.mRingValues[i] = ring.mAnimating ? ring.mValueTo : ring.mValue;
+        }
+        return state;
+    }
+
+    /**
+     * Restores the value without replaying the animation from the start: a running animation
+     * continues with its remaining part or jumps to its final value.
+     * An animation started before the restore, e.g. in onCreate, is replaced.
+     */
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        SavedState savedState = (SavedState) state;
+        super.onRestoreInstanceState(savedState.getSuperState());
+
+        // replaced without calling the finish listener
+        mAnimating = false;
+        mRestoring = true;
+        // onDraw is not called for a view that is invisible or has no size
+        removeCallbacks(mRestoreEnder);
+        postOnAnimation(mRestoreEnder);
+        mValueFrom = savedState.mValueFrom;
+        mValueTo = savedState.mValueTo;
+        mAnimationDuration = savedState.mAnimationDuration;
+
+        if (savedState.mAnimationRunning && mContinueAnimationOnRestore && !mSuppressEntryAnimationOnRestore
+                && scaleDuration(mAnimationDuration) > 0) {
+            animateProgress();
+            mCurrentValue = savedState.mCurrentValue;
+            mAnimationPlayTime = (long) (savedState.mAnimationFraction * mScaledAnimationDuration);
+            mAnimationStart = mAnimatorTime - mAnimationPlayTime;
+            if (savedState.mAnimationPaused && Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+                mAnimator.pause();
+            }
+        } else {
+            mCurrentValue = savedState.mAnimationRunning ? savedState.mValueTo : savedState.mCurrentValue;
+            dispatchValueChanged(true);
+            scheduleAccessibilityRangeEvent();
+        }
+
+        // rings are added by the app before the restore, only restore matching ones
+        if (savedState.mRingValues.length == mRings.size()) {
+            for (int i = 0; i < savedState.mRingValues.length; i++) {
+                mRings.get(i).mAnimating = false;
+                mRings.get(i).mValue = savedState.mRingValues[i];
+            }
+        }
+        invalidate();
+    }
+
+    static class SavedState extends BaseSavedState {
+
+        float mCurrentValue;
+        float mValueFrom;
+        float mValueTo;
+        long mAnimationDuration;
+        float mAnimationFraction;
+        boolean mAnimationRunning;
+        boolean mAnimationPaused;
+        float[] mRingValues = new float[0];
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            mCurrentValue = in.readFloat();
+            mValueFrom = in.readFloat();
+            mValueTo = in.readFloat();
+            mAnimationDuration = in.readLong();
+            mAnimationFraction = in.readFloat();
+            int flags = in.readInt();
+            mAnimationRunning = (flags & 1) != 0;
+            mAnimationPaused = (flags & 2) != 0;
+            mRingValues = in.createFloatArray();
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeFloat(mCurrentValue);
+            out.writeFloat(mValueFrom);
+            out.writeFloat(mValueTo);
+            out.writeLong(mAnimationDuration);
+            out.writeFloat(mAnimationFraction);
+            out.writeInt((mAnimationRunning ? 1 : 0) | (mAnimationPaused ? 2 : 0));
+            out.writeFloatArray(mRingValues);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
+
+    //endregion saved state
+    //----------------------------------
+
+    //----------------------------------
+    //region accessibility
+
     @Override
-    public void onAnimationUpdate(ValueAnimator animation) {
-        mCurrentValue = (Float) animation.getAnimatedValue();
+    public CharSequence getAccessibilityClassName() {
+        return ProgressBar.class.getName();
+    }
+
+    @Override
+    public void onInitializeAccessibilityNodeInfo(AccessibilityNodeInfo info) {
+        super.onInitializeAccessibilityNodeInfo(info);
+        info.setClassName(ProgressBar.class.getName());
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            info.setRangeInfo(AccessibilityNodeInfo.RangeInfo.obtain(
+                    AccessibilityNodeInfo.RangeInfo.RANGE_TYPE_FLOAT, 0, mMaxValue, mCurrentValue));
+        }
+    }
+
+    @Override
+    public void onInitializeAccessibilityEvent(AccessibilityEvent event) {
+        super.onInitializeAccessibilityEvent(event);
+        event.setClassName(ProgressBar.class.getName());
+        event.setItemCount(Math.round(mMaxValue));
+        event.setCurrentItemIndex(Math.round(mCurrentValue));
+    }
+
+    /**
+     * Schedules an accessibility event for the current value.
+     * While an event is pending further changes are coalesced into it, so at most one event
+     * is sent per {@link #mAccessibilityEventInterval} no matter how often the value changes.
+     */
+    private void scheduleAccessibilityRangeEvent() {
+        if (mAccessibilityManager == null || !mAccessibilityManager.isEnabled() || mAccessibilityEventPending) {
+            return;
+        }
+        long delay = mLastAccessibilityEventTime + mAccessibilityEventInterval - SystemClock.uptimeMillis();
+        mAccessibilityEventPending = true;
+        postDelayed(mAccessibilityEventSender, Math.max(0, delay));
+    }
+
+    /**
+     * Sends the accessibility event for the current value immediately and drops a pending one.
+     */
+    private void sendAccessibilityRangeEvent() {
+        if (mAccessibilityEventPending) {
+            removeCallbacks(mAccessibilityEventSender);
+            mAccessibilityEventPending = false;
+        }
+        if (mAccessibilityManager == null || !mAccessibilityManager.isEnabled()) {
+            return;
+        }
+        mLastAccessibilityEventTime = SystemClock.uptimeMillis();
+        sendAccessibilityEvent(AccessibilityEvent.TYPE_VIEW_SELECTED);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        if (mAccessibilityEventPending) {
+            removeCallbacks(mAccessibilityEventSender);
+            mAccessibilityEventPending = false;
+        }
+        unregisterPowerSaveReceiver();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && mRimNode != null) {
+            mRimNode.discardDisplayList();
+            mBarNode.discardDisplayList();
+        }
+        super.onDetachedFromWindow();
+    }
+
+    //endregion accessibility
+    //----------------------------------
+
+    @Override
+    public void onTimeUpdate(TimeAnimator animation, long totalTime, long deltaTime) {
+        mAnimatorTime = totalTime;
+        boolean finished = false;
+        if (mAnimating) {
+            mAnimationPlayTime = totalTime - mAnimationStart;
+            float fraction = Math.min(1f, mAnimationPlayTime / (float) mScaledAnimationDuration);
+            if (fraction >= 1f) {
+                mAnimating = false;
+                finished = true;
+                mCurrentValue = mValueTo;
+            } else {
+                mCurrentValue = mValueFrom + (mValueTo - mValueFrom) * mAnimationEasing.getInterpolation(fraction);
+                dispatchValueChanged(false);
+                scheduleAccessibilityRangeEvent();
+            }
+        }
+        boolean running = updateRings(totalTime) | mAnimating;
+        if (!running) {
+            animation.end();
+        }
+
+        // cap the frame rate, the time is aligned to the display frames. The last frame is always drawn.
+        if (running && !finished && mMaxFrameRate > 0 && getEffectiveRenderQuality() != RenderQuality.FULL) {
+            if (totalTime - mLastFrameTime < 1000 / mMaxFrameRate) {
+                return;
+            }
+            mLastFrameTime = totalTime;
+        }
         invalidate();
+
+        if (finished) {
+            onValueAnimationEnd();
+        }
+    }
+
+    private void onValueAnimationEnd() {
+        dispatchValueChanged(true);
+        sendAccessibilityRangeEvent();
+        if (animationFinishListener != null) {
+            animationFinishListener.onAnimationUpdateListener();
+        }
+    }
+
+    /**
+     * Calls the {@link OnValueChangedListener} if the current value passes the dispatch mode.
+     *
+     * @param _force true to skip the dispatch mode check, e.g. for the final value of an animation.
+     */
+    private void dispatchValueChanged(boolean _force) {
+        if (mOnValueChangedListener == null || mCurrentValue == mLastDispatchedValue) {
+            return;
+        }
+        long now = SystemClock.uptimeMillis();
+        if (!_force && !Float.isNaN(mLastDispatchedValue)) {
+            switch (mValueDispatchMode) {
+                case UNITS:
+                    if (Math.abs(mCurrentValue - mLastDispatchedValue) < mValueDispatchStep) {
+                        return;
+                    }
+                    break;
+                case BLOCK:
+                    if (getBlockIndex(mCurrentValue) == getBlockIndex(mLastDispatchedValue)) {
+                        return;
+                    }
+                    break;
+                case INTERVAL:
+                    if (now - mLastDispatchTime < mValueDispatchStep) {
+                        return;
+                    }
+                    break;
+            }
+        }
+        mLastDispatchedValue = mCurrentValue;
+        mLastDispatchTime = now;
+        mOnValueChangedListener.onValueChanged(mCurrentValue, mMaxValue);
+    }
+
+    private int getBlockIndex(float _value) {
+        return (int) Math.floor(_value / (mMaxValue / mStyle.getBlockCount()));
+    }
+
+    /**
+     * Collects property changes of the view and applies them at once, see {@link #edit()}.
+     */
+    public final class Editor {
+
+        private CircleProgressStyle.Builder mStyleBuilder = mStyle.buildUpon();
+        private float mEditMaxValue = mMaxValue;
+        private float[] mEditMarkerValues = mMarkerValues;
+        private ColorRamp mEditBarColorRamp = mBarColorRamp;
+
+        private Editor() {
+        }
+
+        /**
+         * Replaces all appearance properties with the given style. Later calls on this editor
+         * change the style further.
+         */
+        public Editor style(@NonNull CircleProgressStyle _style) {
+            mStyleBuilder = _style.buildUpon();
+            return this;
+        }
+
+        public Editor barColors(@ColorInt int... _barColors) {
+            mStyleBuilder.barColors(_barColors);
+            return this;
+        }
+
+        public Editor barColorRamp(ColorRamp _barColorRamp) {
+            mEditBarColorRamp = _barColorRamp;
+            return this;
+        }
+
+        public Editor barWidth(@IntRange(from = 0) int _barWidth) {
+            mStyleBuilder.barWidth(_barWidth);
+            return this;
+        }
+
+        public Editor barStrokeCap(@NonNull Paint.Cap _barStrokeCap) {
+            mStyleBuilder.barStrokeCap(_barStrokeCap);
+            return this;
+        }
+
+        public Editor rimWidth(@IntRange(from = 0) int _rimWidth) {
+            mStyleBuilder.rimWidth(_rimWidth);
+            return this;
+        }
+
+        public Editor rimColor(@ColorInt int _rimColor) {
+            mStyleBuilder.rimColor(_rimColor);
+            return this;
+        }
+
+        public Editor rimShader(Shader _rimShader) {
+            mStyleBuilder.rimShader(_rimShader);
+            return this;
+        }
+
+        public Editor fillColor(@ColorInt int _fillColor) {
+            mStyleBuilder.fillColor(_fillColor);
+            return this;
+        }
+
+        public Editor startAngle(int _startAngle) {
+            mStyleBuilder.startAngle(_startAngle);
+            return this;
+        }
+
+        public Editor direction(@NonNull Direction _direction) {
+            mStyleBuilder.direction(_direction);
+            return this;
+        }
+
+        /**
+         * Like {@link #setBlockCount(int)}, a count of 1 or less hides the blocks.
+         */
+        public Editor blockCount(int _blockCount) {
+            mStyleBuilder.showBlock(_blockCount > 1).blockCount(_blockCount);
+            return this;
+        }
+
+        public Editor blockScale(@FloatRange(from = 0.0, to = 1) float _blockScale) {
+            mStyleBuilder.blockScale(_blockScale);
+            return this;
+        }
+
+        public Editor showBlock(boolean _showBlock) {
+            mStyleBuilder.showBlock(_showBlock);
+            return this;
+        }
+
+        public Editor tickCount(@IntRange(from = 0) int _tickCount) {
+            mStyleBuilder.tickCount(_tickCount);
+            return this;
+        }
+
+        public Editor tickLength(@IntRange(from = 0) int _tickLength) {
+            mStyleBuilder.tickLength(_tickLength);
+            return this;
+        }
+
+        public Editor tickWidth(@IntRange(from = 0) int _tickWidth) {
+            mStyleBuilder.tickWidth(_tickWidth);
+            return this;
+        }
+
+        public Editor tickColor(@ColorInt int _tickColor) {
+            mStyleBuilder.tickColor(_tickColor);
+            return this;
+        }
+
+        public Editor markers(float... _values) {
+            mEditMarkerValues = _values.clone();
+            return this;
+        }
+
+        public Editor maxValue(@FloatRange(from = 0) float _maxValue) {
+            mEditMaxValue = _maxValue;
+            return this;
+        }
+
+        /**
+         * Applies all collected changes with one style build, one bounds and paint setup
+         * and one invalidate.
+         */
+        public void apply() {
+            mStyle = mStyleBuilder.build();
+            mMaxValue = mEditMaxValue;
+            mMarkerValues = mEditMarkerValues;
+            mBarColorRamp = mEditBarColorRamp;
+            setupBounds();
+            setupPaints();
+            invalidate();
+        }
+    }
+
+    /**
+     * A concentric ring inside the main ring.
+     */
+    private static final class Ring {
+        CircleProgressStyle mStyle;
+        CircleProgressStyle mDrawStyle;
+        boolean mGradientActive;
+        float mMaxValue;
+        float mValue;
+        float mValueFrom;
+        float mValueTo;
+        long mAnimationStart;
+        long mAnimationDuration;
+        boolean mAnimating;
+        final RectF mBounds = new RectF();
+        final RectF mCenteredBounds = new RectF();
     }
 
     public interface AnimationFinishListener {
         public void onAnimationUpdateListener();
     }
+
+    public interface OnValueChangedListener {
+        /**
+         * Called when the value changed, according to the {@link ValueDispatchMode} of the view.
+         *
+         * @param value    The current value.
+         * @param maxValue The max value of the view.
+         */
+        void onValueChanged(float value, float maxValue);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,113 @@
+package com.example.myapplication.circleprogress;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+
+/**
+ * Maps the value of a {@link CircleProgressView} to a bar color, e.g. green to amber to red.
+ * The stops are baked once into a lookup table of colors indexed by the quantized value,
+ * looking up a color is a single array access.
+ * <p/>
+ * Stop positions are fractions of the max value, between 0 and 1.
+ */
+public final class ColorRamp {
+
+    /**
+     * The number of quantization steps of the value.
+     */
+    private static final int TABLE_SIZE = 256;
+
+    private final int[] mTable;
+
+    private ColorRamp(int[] _table) {
+        mTable = _table;
+    }
+
+    /**
+     * Hard color steps. Below the first threshold the first color is used, from threshold i on
+     * the color i + 1.
+     *
+     * @param _thresholds ascending thresholds as fraction of the max value.
+     * @param _colors     one color more than thresholds.
+     * @throws IllegalArgumentException if the sizes don't match or the thresholds are not ascending.
+     */
+    public static ColorRamp thresholds(@NonNull float[] _thresholds, @NonNull @ColorInt int[] _colors) {
+        if (_colors.length != _thresholds.length + 1) {
+            throw new IllegalArgumentException("Expected " + (_thresholds.length + 1) + " colors but got " + _colors.length);
+        }
+        checkAscending(_thresholds);
+        int[] table = new int[TABLE_SIZE];
+        int stop = 0;
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            float fraction = i / (float) (TABLE_SIZE - 1);
+            while (stop < _thresholds.length && fraction >= _thresholds[stop]) {
+                stop++;
+            }
+            table[i] = _colors[stop];
+        }
+        return new ColorRamp(table);
+    }
+
+    /**
+     * Colors interpolated between stops. Before the first and after the last stop the color of
+     * that stop is used.
+     *
+     * @param _positions ascending stop positions as fraction of the max value.
+     * @param _colors    the color of each stop.
+     * @throws IllegalArgumentException if the sizes don't match, are empty or the positions are not ascending.
+     */
+    public static ColorRamp gradient(@NonNull float[] _positions, @NonNull @ColorInt int[] _colors) {
+        if (_colors.length != _positions.length || _colors.length == 0) {
+            throw new IllegalArgumentException("Expected one color per position");
+        }
+        checkAscending(_positions);
+        int[] table = new int[TABLE_SIZE];
+        int stop = 0;
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            float fraction = i / (float) (TABLE_SIZE - 1);
+            while (stop < _positions.length && fraction >= _positions[stop]) {
+                stop++;
+            }
+            if (stop == 0) {
+                table[i] = _colors[0];
+            } else if (stop == _positions.length) {
+                table[i] = _colors[_colors.length - 1];
+            } else {
+                float range = _positions[stop] - _positions[stop - 1];
+                table[i] = blend(_colors[stop - 1], _colors[stop], (fraction - _positions[stop - 1]) / range);
+            }
+        }
+        return new ColorRamp(table);
+    }
+
+    private static void checkAscending(float[] _positions) {
+        for (int i = 1; i < _positions.length; i++) {
+            if (_positions[i] < _positions[i - 1]) {
+                throw new IllegalArgumentException("Positions must be ascending");
+            }
+        }
+    }
+
+    private static int blend(int _from, int _to, float _fraction) {
+        int a = (int) (((_from >>> 24) & 0xff) + (((_to >>> 24) & 0xff) - ((_from >>> 24) & 0xff)) * _fraction);
+        int r = (int) (((_from >> 16) & 0xff) + (((_to >> 16) & 0xff) - ((_from >> 16) & 0xff)) * _fraction);
+        int g = (int) (((_from >> 8) & 0xff) + (((_to >> 8) & 0xff) - ((_from >> 8) & 0xff)) * _fraction);
+        int b = (int) ((_from & 0xff) + ((_to & 0xff) - (_from & 0xff)) * _fraction);
+        return (a << 24) | (r << 16) | (g << 8) | b;
+    }
+
+    /**
+     * @param _fraction The value as fraction of the max value, clamped to 0 - 1.
+     * @return the color for the value.
+     */
+    @ColorInt
+    public int getColor(float _fraction) {
+        if (!(_fraction > 0)) {
+            return mTable[0];
+        }
+        if (_fraction >= 1) {
+            return mTable[TABLE_SIZE - 1];
+        }
+        return mTable[(int) (_fraction * (TABLE_SIZE - 1) + 0.5f)];
+    }
+}
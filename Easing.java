@@ -0,0 +1,167 @@
+package com.example.myapplication.circleprogress;
+
+import android.animation.TimeInterpolator;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.LinearInterpolator;
+import android.view.animation.OvershootInterpolator;
+
+import androidx.annotation.NonNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An easing curve, sampled once into a lookup table.
+ * Evaluating it is a table lookup with linear interpolation and does not allocate,
+ * so the cost per animation frame is the same for every curve.
+ * The curves of the factory methods are cached, all views using the same curve share one table.
+ */
+public final class Easing implements TimeInterpolator {
+
+    /**
+     * The number of intervals the curve is sampled with.
+     */
+    private static final int SAMPLE_COUNT = 256;
+    /**
+     * The max number of cached curves, parametrized curves can create any number of keys.
+     */
+    private static final int CACHE_SIZE = 32;
+
+    //Least recently used curves are dropped, views keep their own reference
+    private static final Map<String, Easing> sCache = new LinkedHashMap<String, Easing>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Easing> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final float[] mTable;
+
+    private Easing(float[] _table) {
+        mTable = _table;
+    }
+
+    public static Easing linear() {
+        return of("linear", new LinearInterpolator());
+    }
+
+    public static Easing easeOut() {
+        return of("easeOut", new DecelerateInterpolator());
+    }
+
+    public static Easing easeInOut() {
+        return of("easeInOut", new AccelerateDecelerateInterpolator());
+    }
+
+    public static Easing overshoot() {
+        return overshoot(2.0f);
+    }
+
+    /**
+     * @param _tension The amount of overshoot, see {@link OvershootInterpolator}.
+     */
+    public static Easing overshoot(float _tension) {
+        return of("overshoot:" + _tension, new OvershootInterpolator(_tension));
+    }
+
+    /**
+     * A cubic-bezier curve from (0,0) to (1,1), like CSS cubic-bezier().
+     *
+     * @param _x1 x of the first control point, between 0 and 1.
+     * @param _y1 y of the first control point.
+     * @param _x2 x of the second control point, between 0 and 1.
+     * @param _y2 y of the second control point.
+     */
+    public static Easing cubicBezier(float _x1, float _y1, float _x2, float _y2) {
+        final float x1 = Math.max(0, Math.min(1, _x1));
+        final float x2 = Math.max(0, Math.min(1, _x2));
+        final float y1 = _y1;
+        final float y2 = _y2;
+        return of("cubicBezier:" + x1 + "," + y1 + "," + x2 + "," + y2, new TimeInterpolator() {
+            @Override
+            public float getInterpolation(float input) {
+                // x(t) is monotonic for control points in [0,1], find t by bisection
+                float low = 0;
+                float high = 1;
+                float t = input;
+                for (int i = 0; i < 32; i++) {
+                    t = (low + high) / 2;
+                    if (bezier(t, x1, x2) < input) {
+                        low = t;
+                    } else {
+                        high = t;
+                    }
+                }
+                return bezier(t, y1, y2);
+            }
+        });
+    }
+
+    /**
+     * Parses a cubic-bezier curve in the form "x1,y1,x2,y2".
+     *
+     * @param _points the control points.
+     * @throws IllegalArgumentException if the string does not contain four numbers.
+     */
+    public static Easing cubicBezier(@NonNull String _points) {
+        String[] parts = _points.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Expected x1,y1,x2,y2 but was " + _points);
+        }
+        try {
+            return cubicBezier(Float.parseFloat(parts[0].trim()), Float.parseFloat(parts[1].trim()),
+                    Float.parseFloat(parts[2].trim()), Float.parseFloat(parts[3].trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected x1,y1,x2,y2 but was " + _points, e);
+        }
+    }
+
+    /**
+     * Samples any interpolator. The result is not cached, keep it to share it between views.
+     *
+     * @param _interpolator the interpolator to sample.
+     */
+    public static Easing sample(@NonNull TimeInterpolator _interpolator) {
+        float[] table = new float[SAMPLE_COUNT + 1];
+        for (int i = 0; i <= SAMPLE_COUNT; i++) {
+            table[i] = _interpolator.getInterpolation(i / (float) SAMPLE_COUNT);
+        }
+        return new Easing(table);
+    }
+
+    /**
+     * @param _key          identifies the curve including all its parameters, the interpolator
+     *                      is only sampled if no curve is cached under the key.
+     * @param _interpolator the interpolator to sample.
+     */
+    private static Easing of(@NonNull String _key, @NonNull TimeInterpolator _interpolator) {
+        synchronized (sCache) {
+            Easing easing = sCache.get(_key);
+            if (easing == null) {
+                easing = sample(_interpolator);
+                sCache.put(_key, easing);
+            }
+            return easing;
+        }
+    }
+
+    private static float bezier(float _t, float _p1, float _p2) {
+        float u = 1 - _t;
+        return 3 * u * u * _t * _p1 + 3 * u * _t * _t * _p2 + _t * _t * _t;
+    }
+
+    @Override
+    public float getInterpolation(float input) {
+        if (input <= 0) {
+            return mTable[0];
+        }
+        if (input >= 1) {
+            return mTable[SAMPLE_COUNT];
+        }
+        float position = input * SAMPLE_COUNT;
+        int index = (int) position;
+        float fraction = position - index;
+        return mTable[index] + (mTable[index + 1] - mTable[index]) * fraction;
+    }
+}
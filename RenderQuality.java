@@ -0,0 +1,20 @@
+package com.example.myapplication.circleprogress;
+
+public enum RenderQuality {
+    /**
+     * Anti-aliased, gradients and an animation frame on every display refresh.
+     */
+    FULL,
+
+    /**
+     * Animation frames are capped to the max frame rate and rings smaller than the
+     * low quality size are drawn without gradient.
+     */
+    BALANCED,
+
+    /**
+     * Like {@link #BALANCED}, additionally rings smaller than the low quality size
+     * are drawn without anti-aliasing.
+     */
+    LOW_POWER
+}
@@ -0,0 +1,24 @@
+package com.example.myapplication.circleprogress;
+
+public enum ValueDispatchMode {
+    /**
+     * The listener is called on every change of the value, e.g. on every animation frame.
+     */
+    EVERY_FRAME,
+
+    /**
+     * The listener is called when the value moved by at least the given amount of units
+     * since the last call.
+     */
+    UNITS,
+
+    /**
+     * The listener is called when the value crosses a block boundary.
+     */
+    BLOCK,
+
+    /**
+     * The listener is called at most once per the given amount of milliseconds.
+     */
+    INTERVAL
+}
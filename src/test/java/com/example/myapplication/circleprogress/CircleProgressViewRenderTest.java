@@ -0,0 +1,212 @@
+package com.example.myapplication.circleprogress;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.view.View;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.ParameterizedRobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Renders the view across a matrix of configurations and compares the pixels and the draw
+ * operations of a frame to recorded goldens, so drawing optimizations can't silently change
+ * either.
+ * <p>
+ * Record or update the goldens after an intentional change with
+ * {@code ./gradlew test -Dcpv.recordGoldens=true} and review the changed files.
+ */
+@RunWith(ParameterizedRobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+@Config(sdk = 33)
+public class CircleProgressViewRenderTest {
+
+    private static final int SIZE = 200;
+    /**
+     * The max difference of a color channel, anti-aliasing may differ slightly between hosts.
+     */
+    private static final int CHANNEL_TOLERANCE = 8;
+    /**
+     * The max share of pixels exceeding the channel tolerance.
+     */
+    private static final float PIXEL_TOLERANCE = 0.001f;
+    private static final File GOLDEN_DIR = new File("src/test/resources/golden");
+    private static final boolean RECORD = Boolean.getBoolean("cpv.recordGoldens");
+
+    private static final int[] COLORS = {0xff009688, 0xffff5722, 0xff3f51b5, 0xffffc107};
+    private static final Paint.Cap[] CAPS = {Paint.Cap.BUTT, Paint.Cap.ROUND, Paint.Cap.SQUARE};
+    private static final int[] START_ANGLES = {0, 45, 180, 270};
+
+    private final String mName;
+    private final Direction mDirection;
+    private final boolean mShowBlock;
+    private final int mColorCount;
+    private final Paint.Cap mCap;
+    private final int mStartAngle;
+    private final float mValue;
+    private final float mMinValueAllowed;
+    private final float mMaxValueAllowed;
+
+    public CircleProgressViewRenderTest(String _name, Direction _direction, boolean _showBlock, int _colorCount,
+                                        Paint.Cap _cap, int _startAngle, float _value,
+                                        float _minValueAllowed, float _maxValueAllowed) {
+        mName = _name;
+        mDirection = _direction;
+        mShowBlock = _showBlock;
+        mColorCount = _colorCount;
+        mCap = _cap;
+        mStartAngle = _startAngle;
+        mValue = _value;
+        mMinValueAllowed = _minValueAllowed;
+        mMaxValueAllowed = _maxValueAllowed;
+    }
+
+    @ParameterizedRobolectricTestRunner.Parameters(name = "{0}")
+    public static Collection<Object[]> configurations() {
+        List<Object[]> configurations = new ArrayList<>();
+        for (Direction direction : Direction.values()) {
+            for (boolean showBlock : new boolean[]{false, true}) {
+                for (Paint.Cap cap : CAPS) {
+                    for (int colorCount = 1; colorCount <= COLORS.length; colorCount++) {
+                        add(configurations, direction, showBlock, colorCount, cap, 270, 42, 0, -1);
+                    }
+                    // a full bar, the caps of both ends meet
+                    add(configurations, direction, showBlock, 2, cap, 270, 100, 0, -1);
+                }
+                for (int startAngle : START_ANGLES) {
+                    add(configurations, direction, showBlock, 3, Paint.Cap.ROUND, startAngle, 42, 0, -1);
+                }
+            }
+            // values outside of the allowed range are clamped
+            add(configurations, direction, false, 1, Paint.Cap.ROUND, 270, 10, 25, -1);
+            add(configurations, direction, false, 1, Paint.Cap.ROUND, 270, 90, 0, 60);
+        }
+        return configurations;
+    }
+
+    private static void add(List<Object[]> _configurations, Direction _direction, boolean _showBlock, int _colorCount,
+                            Paint.Cap _cap, int _startAngle, float _value, float _minValueAllowed, float _maxValueAllowed) {
+        String name = _direction.name().toLowerCase()
+                + (_showBlock ? "_block" : "_continuous")
+                + "_" + _colorCount + "colors"
+                + "_" + _cap.name().toLowerCase()
+                + "_start" + _startAngle
+                + "_value" + (int) _value
+                + (_minValueAllowed > 0 ? "_min" + (int) _minValueAllowed : "")
+                + (_maxValueAllowed >= 0 ? "_max" + (int) _maxValueAllowed : "");
+        // the start angle loop repeats a configuration of the cap loop
+        for (Object[] configuration : _configurations) {
+            if (configuration[0].equals(name)) {
+                return;
+            }
+        }
+        _configurations.add(new Object[]{name, _direction, _showBlock, _colorCount, _cap, _startAngle, _value,
+                _minValueAllowed, _maxValueAllowed});
+    }
+
+    @Test
+    public void rendersLikeGolden() throws IOException {
+        CircleProgressView view = new CircleProgressView(ApplicationProvider.getApplicationContext(), null);
+        view.setRenderQuality(RenderQuality.FULL);
+        view.setDirection(mDirection);
+        view.setShowBlock(mShowBlock);
+        view.setBarColor(Arrays.copyOf(COLORS, mColorCount));
+        view.setBarStrokeCap(mCap);
+        view.setStartAngle(mStartAngle);
+        view.setMinValueAllowed(mMinValueAllowed);
+        if (mMaxValueAllowed >= 0) {
+            view.setMaxValueAllowed(mMaxValueAllowed);
+        }
+        view.setValue(mValue);
+
+        int spec = View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY);
+        view.measure(spec, spec);
+        view.layout(0, 0, SIZE, SIZE);
+
+        Bitmap bitmap = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+        bitmap.eraseColor(Color.WHITE);
+        DrawOpCountingCanvas canvas = new DrawOpCountingCanvas(bitmap);
+        view.draw(canvas);
+
+        File golden = new File(GOLDEN_DIR, mName + ".png");
+        File goldenOps = new File(GOLDEN_DIR, mName + ".ops");
+        String ops = formatOps(canvas.getCounts());
+        if (RECORD) {
+            GOLDEN_DIR.mkdirs();
+            try (OutputStream out = new FileOutputStream(golden)) {
+                bitmap.compress(Bitmap.CompressFormat.PNG, 100, out);
+            }
+            Files.write(goldenOps.toPath(), ops.getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        if (!golden.exists() || !goldenOps.exists()) {
+            fail("No golden for " + mName + ", record it with -Dcpv.recordGoldens=true");
+        }
+
+        assertEquals("draw operations of " + mName + ", total " + canvas.getTotalCount(),
+                new String(Files.readAllBytes(goldenOps.toPath()), StandardCharsets.UTF_8), ops);
+
+        Bitmap expected;
+        try (InputStream in = new FileInputStream(golden)) {
+            expected = BitmapFactory.decodeStream(in);
+        }
+        assertNotNull(expected);
+        int differing = countDifferingPixels(expected, bitmap);
+        assertTrue(mName + ": " + differing + " pixels differ from the golden",
+                differing <= PIXEL_TOLERANCE * SIZE * SIZE);
+    }
+
+    private static String formatOps(Map<String, Integer> _counts) {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Integer> entry : _counts.entrySet()) {
+            builder.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+        }
+        return builder.toString();
+    }
+
+    private static int countDifferingPixels(Bitmap _expected, Bitmap _actual) {
+        assertEquals(_expected.getWidth(), _actual.getWidth());
+        assertEquals(_expected.getHeight(), _actual.getHeight());
+        int[] expected = new int[SIZE * SIZE];
+        int[] actual = new int[SIZE * SIZE];
+        _expected.getPixels(expected, 0, SIZE, 0, 0, SIZE, SIZE);
+        _actual.getPixels(actual, 0, SIZE, 0, 0, SIZE, SIZE);
+        int differing = 0;
+        for (int i = 0; i < expected.length; i++) {
+            int a = expected[i];
+            int b = actual[i];
+            if (Math.abs(Color.alpha(a) - Color.alpha(b)) > CHANNEL_TOLERANCE
+                    || Math.abs(Color.red(a) - Color.red(b)) > CHANNEL_TOLERANCE
+                    || Math.abs(Color.green(a) - Color.green(b)) > CHANNEL_TOLERANCE
+                    || Math.abs(Color.blue(a) - Color.blue(b)) > CHANNEL_TOLERANCE) {
+                differing++;
+            }
+        }
+        return differing;
+    }
+}
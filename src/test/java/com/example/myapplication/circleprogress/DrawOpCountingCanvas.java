@@ -0,0 +1,163 @@
+package com.example.myapplication.circleprogress;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+
+import androidx.annotation.NonNull;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A bitmap canvas counting the draw calls made on it.
+ * Overloads delegating to each other are counted once, only the outermost call counts.
+ */
+class DrawOpCountingCanvas extends Canvas {
+
+    private final Map<String, Integer> mCounts = new TreeMap<>();
+    private int mDepth = 0;
+
+    DrawOpCountingCanvas(@NonNull Bitmap _bitmap) {
+        super(_bitmap);
+    }
+
+    /**
+     * @return the number of calls per draw operation, sorted by name.
+     */
+    Map<String, Integer> getCounts() {
+        return mCounts;
+    }
+
+    int getTotalCount() {
+        int total = 0;
+        for (int count : mCounts.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    private void enter(String _op) {
+        if (mDepth++ == 0) {
+            Integer count = mCounts.get(_op);
+            mCounts.put(_op, count == null ? 1 : count + 1);
+        }
+    }
+
+    private void exit() {
+        mDepth--;
+    }
+
+    @Override
+    public void drawArc(@NonNull RectF oval, float startAngle, float sweepAngle, boolean useCenter, @NonNull Paint paint) {
+        enter("drawArc");
+        try {
+            super.drawArc(oval, startAngle, sweepAngle, useCenter, paint);
+        } finally {
+            exit();
+        }
+    }
+
+    @Override
+    public void drawArc(float left, float top, float right, float bottom, float startAngle, float sweepAngle,
+                        boolean useCenter, @NonNull Paint paint) {
+        enter("drawArc");
+        try {
+            super.drawArc(left, top, right, bottom, startAngle, sweepAngle, useCenter, paint);
+        } finally {
+            exit();
+        }
+    }
+
+    @Override
+    public void drawLine(float startX, float startY, float stopX, float stopY, @NonNull Paint paint) {
+        enter("drawLine");
+        try {
+            super.drawLine(startX, startY, stopX, stopY, paint);
+        } finally {
+            exit();
+        }
+    }
+
+    @Override
+    public void drawLines(@NonNull float[] pts, @NonNull Paint paint) {
+        enter("drawLines");
+        try {
+            super.drawLines(pts, paint);
+        } finally {
+            exit();
+        }
+    }
+
+    @Override
+    public void drawLines(@NonNull float[] pts, int offset, int count, @NonNull Paint paint) {
+        enter("drawLines");
+        try {
+            super.drawLines(pts, offset, count, paint);
+        } finally {
+            exit();
+        }
+    }
+
+    @Override
+    public void drawCircle(float cx, float cy, float radius, @NonNull Paint paint) {
+        enter("drawCircle");
+        try {
+            super.drawCircle(cx, cy, radius, paint);
+        } finally {
+            exit();
+        }
+    }
+
+    @Override
+    public void drawPath(@NonNull Path path, @NonNull Paint paint) {
+        enter("drawPath");
+        try {
+            super.drawPath(path, paint);
+        } finally {
+            exit();
+        }
+    }
+
+    @Override
+    public void drawRect(@NonNull RectF rect, @NonNull Paint paint) {
+        enter("drawRect");
+        try {
+            super.drawRect(rect, paint);
+        } finally {
+            exit();
+        }
+    }
+
+    @Override
+    public void drawRect(float left, float top, float right, float bottom, @NonNull Paint paint) {
+        enter("drawRect");
+        try {
+            super.drawRect(left, top, right, bottom, paint);
+        } finally {
+            exit();
+        }
+    }
+
+    @Override
+    public void drawOval(@NonNull RectF oval, @NonNull Paint paint) {
+        enter("drawOval");
+        try {
+            super.drawOval(oval, paint);
+        } finally {
+            exit();
+        }
+    }
+
+    @Override
+    public void drawOval(float left, float top, float right, float bottom, @NonNull Paint paint) {
+        enter("drawOval");
+        try {
+            super.drawOval(left, top, right, bottom, paint);
+        } finally {
+            exit();
+        }
+    }
+}